@@ -0,0 +1,71 @@
+package com.recipeplatform.benchmarks;
+
+import com.recipeplatform.config.JwtAuthFilter;
+import com.recipeplatform.config.JwtUtil;
+import com.recipeplatform.config.PrincipalCache;
+import com.recipeplatform.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through JwtAuthFilter: header parsing, token verification,
+ * principal lookup and SecurityContext population.
+ *
+ * principals=warm serves users from PrincipalCache; principals=cold empties the cache
+ * before every request, which is what every request cost before the cache existed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class AuthFilterBenchmark {
+
+    @State(Scope.Thread)
+    public static class Filter {
+        @Param({"warm", "cold"})
+        public String principals;
+
+        JwtAuthFilter filter;
+        PrincipalCache principalCache;
+        String authorization;
+
+        @Setup(Level.Trial)
+        public void setUp(SeededApplication app) {
+            filter = app.context.getBean(JwtAuthFilter.class);
+            principalCache = app.context.getBean(PrincipalCache.class);
+            UserService userService = app.context.getBean(UserService.class);
+            String token = app.context.getBean(JwtUtil.class)
+                    .generateToken(userService.loadUserByUsername(app.username(0)));
+            authorization = "Bearer " + token;
+        }
+    }
+
+    @Benchmark
+    public Object authenticate(Filter state) throws Exception {
+        if ("cold".equals(state.principals)) {
+            state.principalCache.invalidateAll();
+        }
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/recipes/feed/page");
+        request.addHeader("Authorization", state.authorization);
+        state.filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,55 @@
+package com.recipeplatform.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Entry point of target/benchmarks.jar. Accepts the usual JMH command line, but unless
+ * -rf/-rff are given it writes JSON results to jmh-results/&lt;git commit&gt;.json so runs on
+ * different commits can be diffed (or loaded into a JMH visualizer) side by side.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams()
+                || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResultFormat().hasValue() && !cli.getResult().hasValue()) {
+            File out = new File("jmh-results", runName() + ".json");
+            out.getParentFile().mkdirs();
+            options.resultFormat(ResultFormatType.JSON).result(out.getPath());
+            System.out.println("Writing results to " + out.getPath());
+        }
+        new Runner(options.build()).run();
+    }
+
+    // Short commit id of the working tree, or a timestamp outside a git checkout
+    private static String runName() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").start();
+            try (BufferedReader out = new BufferedReader(new InputStreamReader(git.getInputStream()))) {
+                String commit = out.readLine();
+                if (git.waitFor() == 0 && commit != null && !commit.isBlank()) {
+                    return commit.trim();
+                }
+            }
+        } catch (Exception e) {
+            // not a git checkout, or git is not installed
+        }
+        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+    }
+}
@@ -0,0 +1,118 @@
+package com.recipeplatform.benchmarks;
+
+import com.recipeplatform.model.Recipe;
+import com.recipeplatform.model.User;
+import com.recipeplatform.repository.RecipeRepository;
+import com.recipeplatform.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recipe insert rate before and after the switch from IDENTITY ids to pooled sequences with
+ * hibernate.jdbc.batch_size. The IDENTITY baseline replays the statements Hibernate sent for it
+ * (one insert per round trip) over JDBC, without Hibernate's own per-entity work, so it flatters
+ * IDENTITY; the gap is in round trips and shows against a database across a network. The
+ * sequence case goes through Hibernate. Each invocation inserts ROWS recipes in
+ * one transaction, so the score is recipes per second. Inserted rows are deleted after
+ * every iteration to keep the table at its seeded size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final String TITLE_PREFIX = "Bulk insert benchmark ";
+
+    private static final String IDENTITY_INSERT = "INSERT INTO recipes (title, description, ingredients, instructions, "
+            + "category, user_id, created_at, updated_at, rating_count, rating_sum, comment_count) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0) RETURNING id";
+
+    @State(Scope.Thread)
+    public static class Writer {
+        TransactionTemplate transactionTemplate;
+        EntityManager entityManager;
+        RecipeRepository recipeRepository;
+        JdbcTemplate jdbcTemplate;
+        User author;
+
+        @Setup(Level.Trial)
+        public void setUp(SeededApplication app) {
+            transactionTemplate = new TransactionTemplate(app.context.getBean(PlatformTransactionManager.class));
+            entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                    app.context.getBean(EntityManagerFactory.class));
+            recipeRepository = app.context.getBean(RecipeRepository.class);
+            jdbcTemplate = app.context.getBean(JdbcTemplate.class);
+            author = app.context.getBean(UserRepository.class).findByUsername(app.username(0)).orElseThrow();
+        }
+
+        @TearDown(Level.Iteration)
+        public void deleteInserted() {
+            jdbcTemplate.update("DELETE FROM recipes WHERE title LIKE ?", TITLE_PREFIX + "%");
+        }
+    }
+
+    // Before: what Hibernate does with IDENTITY ids, one INSERT ... RETURNING id round trip per recipe.
+    // Plain JDBC, so no second entity is mapped onto the recipes table; the id comes from the column default
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void identityPerRow(Writer writer) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        writer.transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                writer.jdbcTemplate.queryForObject(IDENTITY_INSERT, Long.class, TITLE_PREFIX + i, "Benchmark recipe",
+                        "rice, salt", "Cook it.", "VEGAN", writer.author.getId(), now, now);
+            }
+        });
+    }
+
+    // After: ids handed out from the sequence 50 at a time, inserts sent in JDBC batches
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void pooledSequenceBatched(Writer writer) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Recipe> recipes = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Recipe recipe = new Recipe();
+            recipe.setTitle(TITLE_PREFIX + i);
+            recipe.setDescription("Benchmark recipe");
+            recipe.setIngredients("rice, salt");
+            recipe.setInstructions("Cook it.");
+            recipe.setCategory(Recipe.Category.VEGAN);
+            recipe.setUser(writer.author);
+            recipe.setCreatedAt(now);
+            recipe.setUpdatedAt(now);
+            recipes.add(recipe);
+        }
+        writer.transactionTemplate.executeWithoutResult(status -> {
+            writer.recipeRepository.saveAll(recipes);
+            writer.entityManager.flush();
+            writer.entityManager.clear();
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package com.recipeplatform.benchmarks;
+
+import com.recipeplatform.dto.CursorPage;
+import com.recipeplatform.dto.FeedCursor;
+import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.model.User;
+import com.recipeplatform.service.RecipeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Discover and Following feed queries through RecipeService, on a seeded database.
+ * Each invocation of the Following benchmarks reads the feed of a random user.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FeedBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @State(Scope.Thread)
+    public static class Feeds {
+        RecipeService recipeService;
+        long[] userIds;
+        String deepCursor;
+        SplittableRandom random = new SplittableRandom(7);
+        User user = new User();
+
+        @Setup(Level.Trial)
+        public void setUp(SeededApplication app) {
+            recipeService = app.context.getBean(RecipeService.class);
+            userIds = app.userIds;
+            // A cursor half way down the catalog, to show keyset pages don't get slower with depth
+            Map<String, Object> middle = app.context.getBean(JdbcTemplate.class).queryForMap(
+                    "SELECT created_at, id FROM recipes ORDER BY created_at DESC, id DESC LIMIT 1 OFFSET ?",
+                    app.recipes / 2);
+            deepCursor = new FeedCursor(((Timestamp) middle.get("created_at")).toLocalDateTime(),
+                    ((Number) middle.get("id")).longValue()).encode();
+        }
+
+        User nextUser() {
+            user.setId(userIds[random.nextInt(userIds.length)]);
+            return user;
+        }
+    }
+
+    @Benchmark
+    public CursorPage<RecipeDto> discoverFirstPage(Feeds feeds) {
+        return feeds.recipeService.getDiscoverPage(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<RecipeDto> discoverDeepPage(Feeds feeds) {
+        return feeds.recipeService.getDiscoverPage(feeds.deepCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<RecipeDto> followingFirstPage(Feeds feeds) {
+        return feeds.recipeService.getFeedPage(feeds.nextUser(), null, PAGE_SIZE);
+    }
+
+    // GET /api/recipes/feed without a cursor: one big page of recipes.discover.legacy-limit cards
+    @Benchmark
+    public List<RecipeDto> followingLegacyList(Feeds feeds) {
+        return feeds.recipeService.getFeedForUser(feeds.nextUser());
+    }
+
+    @Benchmark
+    public List<RecipeDto> discoverLegacyList(Feeds feeds) {
+        return feeds.recipeService.getAllRecipes();
+    }
+}
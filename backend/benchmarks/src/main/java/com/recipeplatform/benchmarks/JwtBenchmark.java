@@ -0,0 +1,75 @@
+package com.recipeplatform.benchmarks;
+
+import com.recipeplatform.config.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue/verify throughput of JwtUtil against the pre-rotation LegacyJwtUtil.
+ * Runs on 4 threads since the filter verifies tokens concurrently.
+ *
+ *   java -jar target/benchmarks.jar JwtBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String SECRET = "mysecretkeythatisverystrongandlongandsecure12345";
+
+    private JwtUtil jwtUtil;
+    private LegacyJwtUtil legacy;
+    private UserDetails user;
+    private String token;
+    private String legacyToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, "primary", "old:anothersecretkeythatisalsolongenough0987");
+        legacy = new LegacyJwtUtil(SECRET);
+        user = new User("chef_anna", "x", List.of());
+        token = jwtUtil.generateToken(user);
+        legacyToken = legacy.generateToken(user.getUsername());
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateLegacy() {
+        return legacy.generateToken(user.getUsername());
+    }
+
+    // What JwtAuthFilter does per request: verify once, then check subject and expiry
+    @Benchmark
+    public boolean validate() {
+        return jwtUtil.validateToken(jwtUtil.parseClaims(token), user);
+    }
+
+    // The old filter path: read the username, then validate (which parses twice more)
+    @Benchmark
+    public boolean validateLegacy() {
+        String username = legacy.getUsernameFromToken(legacyToken);
+        return legacy.validateToken(legacyToken, username);
+    }
+}
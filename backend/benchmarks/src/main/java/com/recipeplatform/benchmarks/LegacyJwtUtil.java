@@ -0,0 +1,65 @@
+package com.recipeplatform.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.function.Function;
+
+/**
+ * Baseline for JwtBenchmark: JwtUtil as it was before the key and parser were precomputed.
+ * Every call rebuilds the key and the parser, and validateToken parses the token twice.
+ */
+public class LegacyJwtUtil {
+
+    private final String secret;
+
+    public LegacyJwtUtil(String secret) {
+        this.secret = secret;
+    }
+
+    private Key getSigningKey() {
+        byte[] keyBytes = secret.getBytes();
+        return Keys.hmacShaKeyFor(keyBytes);
+    }
+
+    public String getUsernameFromToken(String token) {
+        return getClaimFromToken(token, Claims::getSubject);
+    }
+
+    public Date getExpirationDateFromToken(String token) {
+        return getClaimFromToken(token, Claims::getExpiration);
+    }
+
+    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
+        return claimsResolver.apply(getAllClaimsFromToken(token));
+    }
+
+    private Claims getAllClaimsFromToken(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(getSigningKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public String generateToken(String username) {
+        long expirationTime = 1000 * 60 * 60 * 10;
+        return Jwts.builder()
+                .setClaims(new HashMap<>())
+                .setSubject(username)
+                .setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
+                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public Boolean validateToken(String token, String expectedUsername) {
+        final String username = getUsernameFromToken(token);
+        return username.equals(expectedUsername) && !getExpirationDateFromToken(token).before(new Date());
+    }
+}
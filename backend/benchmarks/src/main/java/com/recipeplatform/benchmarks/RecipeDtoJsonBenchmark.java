@@ -0,0 +1,81 @@
+package com.recipeplatform.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.recipeplatform.dto.CursorPage;
+import com.recipeplatform.dto.FeedCursor;
+import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.model.Recipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing feed pages of RecipeDto cards with an ObjectMapper configured like Spring Boot's.
+ * cards=20 is a cursor page, cards=500 the legacy un-paged list endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecipeDtoJsonBenchmark {
+
+    @Param({"20", "500"})
+    public int cards;
+
+    private ObjectWriter writer;
+    private RecipeDto card;
+    private CursorPage<RecipeDto> page;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = mapper.writer();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RecipeDto> items = new ArrayList<>(cards);
+        for (int i = 0; i < cards; i++) {
+            items.add(new RecipeDto((long) i, "Recipe " + i + " chickpea curry",
+                    "A weeknight curry with chickpeas, spinach and plenty of garam masala.",
+                    "https://cdn.example.com/recipes/" + i + ".jpg", Recipe.Category.values()[i % 3],
+                    "cook_" + (i % 50), 4L * i, (long) i, now.minusMinutes(i)));
+        }
+        card = items.get(0);
+        RecipeDto last = items.get(items.size() - 1);
+        page = new CursorPage<>(items, new FeedCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    @Benchmark
+    public byte[] singleCard() throws Exception {
+        return writer.writeValueAsBytes(card);
+    }
+
+    @Benchmark
+    public byte[] cursorPage() throws Exception {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] plainList() throws Exception {
+        return writer.writeValueAsBytes(page.getItems());
+    }
+}
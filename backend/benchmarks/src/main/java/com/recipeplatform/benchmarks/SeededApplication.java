@@ -0,0 +1,113 @@
+package com.recipeplatform.benchmarks;
+
+import com.recipeplatform.App;
+import com.recipeplatform.loadtest.SyntheticDataGenerator;
+import com.recipeplatform.service.TimelineService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The real application context on an embedded database, seeded by SyntheticDataGenerator.
+ *
+ * db=postgres starts an embedded PostgreSQL (same dialect and native queries as production);
+ * db=h2 uses H2 in PostgreSQL mode, which starts faster but plans queries differently.
+ * Size it from the command line, e.g. -p users=20000 -p recipes=200000.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    @Param({"postgres"})
+    public String db;
+
+    @Param({"2000"})
+    public int users;
+
+    @Param({"20000"})
+    public int recipes;
+
+    @Param({"50"})
+    public int followsPerUser;
+
+    @Param({"5"})
+    public int ratingsPerRecipe;
+
+    @Param({"2"})
+    public int commentsPerRecipe;
+
+    @Param({"42"})
+    public long seed;
+
+    public ConfigurableApplicationContext context;
+    public long[] userIds;
+
+    private EmbeddedPostgres postgres;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        Map<String, Object> props = new HashMap<>();
+        if ("postgres".equals(db)) {
+            postgres = EmbeddedPostgres.builder().start();
+            // Same driver setting as application.properties: JDBC insert batches become multi-row INSERTs
+            props.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+            props.put("spring.datasource.username", "postgres");
+            props.put("spring.datasource.password", "postgres");
+        } else if ("h2".equals(db)) {
+            props.put("spring.datasource.url", "jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                    + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+            props.put("spring.datasource.username", "sa");
+            props.put("spring.datasource.password", "");
+            props.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            props.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        } else {
+            throw new IllegalArgumentException("Unknown db: " + db + " (use postgres or h2)");
+        }
+        props.put("spring.jpa.hibernate.ddl-auto", "update");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("logging.level.root", "WARN");
+
+        // Passed as command line arguments so they override application.properties
+        context = new SpringApplicationBuilder(App.class)
+                .web(WebApplicationType.NONE)
+                .run(props.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+
+        long start = System.currentTimeMillis();
+        String passwordHash = context.getBean(PasswordEncoder.class).encode("benchmark");
+        // One transaction for the whole load; autocommit would commit (and fsync) every row
+        SyntheticDataGenerator.Settings settings = new SyntheticDataGenerator.Settings(
+                users, recipes, followsPerUser, ratingsPerRecipe, commentsPerRecipe, seed);
+        userIds = new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+                .execute(tx -> new SyntheticDataGenerator(settings).generate(context.getBean(JdbcTemplate.class), passwordHash));
+        // Timelines and follower counts were initialized on the empty database; derive them again
+        context.getBean(TimelineService.class).initialize();
+        System.out.printf("Seeded %s on %s in %d ms%n", settings, db, System.currentTimeMillis() - start);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws Exception {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    public String username(int index) {
+        return SyntheticDataGenerator.USERNAME_PREFIX + index;
+    }
+}
@@ -3,10 +3,12 @@ package com.recipeplatform;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean; // Import this
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder; // Import this
 import org.springframework.security.crypto.password.PasswordEncoder; // Import this
 
 @SpringBootApplication
+@EnableScheduling
 public class App {
 
     public static void main(String[] args) {
@@ -0,0 +1,35 @@
+package com.recipeplatform.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+/**
+ * The JCache CacheManager behind Hibernate's second-level cache, built from hibernate-cache.conf.
+ *
+ * Handed to Hibernate as an object rather than as hibernate.javax.cache.uri: Hibernate resolves
+ * that URI through java.net.URL, and "classpath:" URLs only resolve once the embedded Tomcat has
+ * registered its handler, so a context without a web server (the benchmarks) couldn't start.
+ * Caffeine reads a classpath: URI itself.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${hibernate-cache.config:classpath:hibernate-cache.conf}") String config) {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create(config), HibernateCacheConfig.class.getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
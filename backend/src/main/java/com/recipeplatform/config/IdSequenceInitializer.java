@@ -0,0 +1,90 @@
+package com.recipeplatform.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Prepares the id sequences behind the entities' pooled @SequenceGenerator (allocationSize 50),
+ * which replaced IDENTITY columns so Hibernate can batch inserts.
+ *
+ * Runs once the schema update is done and before anything inserts. On PostgreSQL it drops the
+ * old identity from each id column, makes nextval(sequence) the column default (so plain JDBC
+ * inserts such as the rating upsert and the load-test generator keep working), and moves the
+ * sequence past the highest existing id. On H2 only the default is set.
+ */
+@Component
+public class IdSequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    // Must match allocationSize on the entities
+    private static final int ALLOCATION_SIZE = 50;
+
+    // table -> sequence
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "users", "users_seq",
+            "recipes", "recipes_seq",
+            "ratings", "ratings_seq",
+            "comments", "comments_seq",
+            "user_follows", "user_follows_seq");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Injected only so this runs after Hibernate has created/updated the schema
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void initialize() {
+        String database;
+        try (Connection connection = dataSource.getConnection()) {
+            database = connection.getMetaData().getDatabaseProductName();
+        } catch (SQLException e) {
+            log.warn("Could not detect database type, id sequences left as they are", e);
+            return;
+        }
+
+        if ("PostgreSQL".equals(database)) {
+            SEQUENCES.forEach(this::preparePostgres);
+        } else if ("H2".equals(database)) {
+            SEQUENCES.forEach((table, sequence) -> jdbcTemplate.execute(
+                    "ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT NEXT VALUE FOR " + sequence));
+        } else {
+            log.warn("Id sequence defaults are only managed on PostgreSQL and H2, not {}", database);
+        }
+    }
+
+    private void preparePostgres(String table, String sequence) {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence + " INCREMENT BY " + ALLOCATION_SIZE);
+
+        Map<String, Object> column = jdbcTemplate.queryForMap("SELECT is_identity, column_default " +
+                "FROM information_schema.columns " +
+                "WHERE table_schema = current_schema() AND table_name = ? AND column_name = 'id'", table);
+        if ("YES".equals(column.get("is_identity"))) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+            log.info("Dropped the identity on {}.id in favour of {}", table, sequence);
+        }
+        String nextval = "nextval('" + sequence + "'::regclass)";
+        if (!nextval.equals(column.get("column_default"))) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT " + nextval);
+        }
+
+        // Pooled ids come from (value - 49 .. value], so the last value must not be below any existing id
+        jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', GREATEST(" +
+                "(SELECT last_value FROM " + sequence + "), (SELECT COALESCE(MAX(id), 0) FROM " + table + ")))", Long.class);
+    }
+}
@@ -1,28 +1,82 @@
 package com.recipeplatform.config; // Or your config/security package
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies the HS256 tokens used by JwtAuthFilter.
+ *
+ * Keys and the parser are built once at startup and never change, so the class is
+ * thread-safe and verifying a token allocates nothing beyond what JJWT needs to parse it.
+ *
+ * Key rotation: new tokens are signed with jwt.secret and carry its id (jwt.key-id) in
+ * the "kid" header. Old secrets listed in jwt.additional-keys (kid:secret,kid:secret)
+ * are still accepted for verification until they are removed from the list.
+ * Tokens without a "kid" (issued before rotation existed) are checked against jwt.secret.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final long EXPIRATION_MILLIS = 1000 * 60 * 60 * 10; // 10 hours
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private final String signingKeyId;
+    private final Key signingKey;
+    private final Map<String, Key> verificationKeys;
+    private final JwtParser parser;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.key-id:primary}") String keyId,
+                   @Value("${jwt.additional-keys:}") String additionalKeys) {
+        this.signingKeyId = keyId;
+        this.signingKey = hmacKey(secret);
+
+        Map<String, Key> keys = new HashMap<>();
+        keys.put(keyId, signingKey);
+        for (String entry : additionalKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int sep = entry.indexOf(':');
+            if (sep <= 0) {
+                throw new IllegalStateException("jwt.additional-keys entries must look like kid:secret");
+            }
+            keys.put(entry.substring(0, sep).trim(), hmacKey(entry.substring(sep + 1).trim()));
+        }
+        this.verificationKeys = Map.copyOf(keys);
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        String kid = header.getKeyId();
+                        Key key = (kid == null) ? signingKey : verificationKeys.get(kid);
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key id: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    private static Key hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     }
 
     public String getUsernameFromToken(String token) {
@@ -38,17 +92,16 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the signature and parses the token once; callers reuse the returned claims
+     * instead of re-parsing for every field. Throws if the token is invalid or expired.
+     */
+    public Claims parseClaims(String token) {
+        return getAllClaimsFromToken(token);
     }
 
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    private Claims getAllClaimsFromToken(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -57,18 +110,23 @@ public class JwtUtil {
     }
 
     private String doGenerateToken(Map<String, Object> claims, String subject) {
-        long expirationTime = 1000 * 60 * 60 * 10; // 10 hours
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeyId)
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + EXPIRATION_MILLIS))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date());
+    }
+
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(getAllClaimsFromToken(token), userDetails);
     }
-}
\ No newline at end of file
+}
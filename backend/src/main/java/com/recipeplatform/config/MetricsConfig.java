@@ -0,0 +1,39 @@
+package com.recipeplatform.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Metrics wiring that Spring Boot's auto-configuration doesn't cover.
+ *
+ * Request timers (http.server.requests), HikariCP pool metrics and Hibernate statistics are
+ * registered by Boot; they are served at /actuator/prometheus on the management port.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Wraps the DataSource in a proxy that reports every executed statement to SqlStatementRecorder.
+     * The proxy unwraps to the HikariDataSource, so the pool metrics still find it.
+     */
+    @Bean
+    public static BeanPostProcessor sqlStatementRecordingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlStatementRecorder())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package com.recipeplatform.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.recipeplatform.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Authenticated principals by username, so JwtAuthFilter doesn't query
+ * the users table on every request.
+ *
+ * Entries expire after security.principal-cache.ttl-seconds and the cache is size-bounded.
+ * Anything that changes who a user is (delete, role change) must call invalidate(); in a
+ * transaction the entry is dropped once it has committed, so a request running meanwhile can't
+ * put the old row back.
+ *
+ * What is cached is an immutable snapshot of the user, and every request gets its own detached
+ * User built from it: no JPA entity is shared between request threads.
+ *
+ * A miss is loaded by the requesting thread, outside the cache's locks: loading inside Caffeine's
+ * compute would hold a map lock across the users query, and a virtual thread blocked there (for
+ * example waiting for a pooled connection) stays pinned to its carrier. Concurrent misses for the
+ * same username still share one load.
+ *
+ * Hit and miss counts are also published as cache.* metrics with cache=principals.
+ */
+@Component
+public class PrincipalCache implements MeterBinder {
+
+    private record Snapshot(Long id, String username, String email, String passwordHash,
+                            User.Role role, LocalDateTime createdAt) {
+
+        static Snapshot of(UserDetails details) {
+            if (!(details instanceof User user)) {
+                throw new IllegalStateException("Expected a User principal, got " + details.getClass().getName());
+            }
+            return new Snapshot(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(),
+                    user.getRole(), user.getCreatedAt());
+        }
+
+        User toUser() {
+            User user = new User(username, email, passwordHash, role);
+            user.setId(id);
+            user.setCreatedAt(createdAt);
+            return user;
+        }
+    }
+
+    private final AsyncCache<String, Snapshot> cache;
+
+    public PrincipalCache(@Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${security.principal-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public UserDetails get(String username, UserDetailsService userDetailsService) {
+        CompletableFuture<Snapshot> principal = cache.getIfPresent(username);
+        if (principal == null) {
+            CompletableFuture<Snapshot> loading = new CompletableFuture<>();
+            principal = cache.asMap().putIfAbsent(username, loading);
+            if (principal == null) {
+                try {
+                    loading.complete(Snapshot.of(userDetailsService.loadUserByUsername(username)));
+                } catch (RuntimeException e) {
+                    // Unknown user or database error: waiters get the exception, nothing stays cached
+                    cache.asMap().remove(username, loading);
+                    loading.completeExceptionally(e);
+                }
+                principal = loading;
+            }
+        }
+        try {
+            return principal.join().toUser();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public void invalidate(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.synchronous().invalidate(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.synchronous().invalidate(username);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "principals");
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.synchronous().stats();
+        return Map.of(
+                "size", cache.synchronous().estimatedSize(),
+                "hits", stats.hitCount(),
+                "misses", stats.missCount(),
+                "hitRatio", stats.hitRate(),
+                "evictions", stats.evictionCount());
+    }
+}
@@ -0,0 +1,72 @@
+package com.recipeplatform.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests handled at once when Tomcat runs on virtual threads.
+ *
+ * On platform threads the worker pool (server.tomcat.threads.max) is that cap. Virtual threads
+ * remove it, and without one every extra request would queue inside HikariCP for one of the
+ * spring.datasource.hikari.maximum-pool-size connections, holding its socket and memory until
+ * connection-timeout fails it with a 500. Here a request over the cap waits up to
+ * requests.queue-timeout-ms for a slot and is then answered 503 with Retry-After.
+ *
+ * The cap defaults to the pool size. A higher one lets the surplus past the filter only to wait
+ * on the pool for up to its 30 s connection-timeout, so those requests get a slow 500 instead of
+ * a fast 503.
+ *
+ * Only registered when virtual threads are on (spring.threads.virtual.enabled on Java 21).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestConcurrencyLimiter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+
+    private final long queueTimeoutMillis;
+
+    public RequestConcurrencyLimiter(@Value("${requests.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+                                     @Value("${requests.queue-timeout-ms:2000}") long queueTimeoutMillis) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.queueTimeoutMillis = queueTimeoutMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.recipeplatform.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how many SQL statements each request runs (http.server.requests.sql, tagged with method
+ * and URI pattern like Boot's http.server.requests timer), so an N+1 query shows up as a jump in
+ * that endpoint's count.
+ *
+ * A request slower than metrics.slow-request-ms, or running more than metrics.max-statements
+ * statements, is logged together with the statements it spent the most time in.
+ * Runs just inside RequestConcurrencyLimiter, so the principal lookup is counted too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${metrics.slow-request-ms:1000}")
+    private long slowRequestMillis;
+
+    @Value("${metrics.max-statements:100}")
+    private int maxStatements;
+
+    @Value("${metrics.logged-statements:10}")
+    private int loggedStatements;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        SqlStatementRecorder.Recording recording = SqlStatementRecorder.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementRecorder.stop();
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            String uri = uriPattern(request);
+            int statements = recording.getCount();
+
+            DistributionSummary.builder("http.server.requests.sql")
+                    .description("SQL statements run per request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+
+            if (elapsedMillis >= slowRequestMillis || statements > maxStatements) {
+                log.warn("Request {} {} ({}) took {} ms and ran {} SQL statements{}",
+                        request.getMethod(), uri, response.getStatus(), elapsedMillis, statements,
+                        statements == 0 ? "" : "; most time spent in:\n  "
+                                + String.join("\n  ", recording.slowest(loggedStatements)));
+            }
+        }
+    }
+
+    // The mapped pattern (/api/recipes/{id}) rather than the path, so ids don't become separate series
+    private String uriPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
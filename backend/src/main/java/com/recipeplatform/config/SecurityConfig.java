@@ -1,6 +1,7 @@
 package com.recipeplatform.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,6 +25,9 @@ public class SecurityConfig {
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS) // Use stateless sessions
             )
             .authorizeHttpRequests(auth -> auth
+                // Health and the Prometheus scrape; the management port only listens on localhost
+                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+
                 // Allow anyone to register or log in
                 .requestMatchers("/api/auth/**").permitAll() 
                 
@@ -33,8 +37,14 @@ public class SecurityConfig {
                 // Only COOK or ADMIN can create (POST) recipes
                 .requestMatchers(HttpMethod.POST, "/api/recipes").hasAnyRole("COOK", "ADMIN")
 
+                // Uploaded images and videos: anyone can view them, cooks upload them
+                .requestMatchers(HttpMethod.GET, "/api/media/**").permitAll()
+                .requestMatchers(HttpMethod.HEAD, "/api/media/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/media").hasAnyRole("COOK", "ADMIN")
+
                 // Only ADMIN can access the user management endpoints
                 .requestMatchers("/api/users/**").hasRole("ADMIN")
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 
                 // All other requests (like POST/PUT/DELETE) must be authenticated
                 .anyRequest().authenticated() 
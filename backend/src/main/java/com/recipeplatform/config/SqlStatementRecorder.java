@@ -0,0 +1,112 @@
+package com.recipeplatform.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the SQL statements run while handling a request, for RequestMetricsFilter.
+ *
+ * Listens on the proxy MetricsConfig puts around the application DataSource, so Hibernate and
+ * JdbcTemplate statements are both seen. A recording belongs to the thread that started it; work
+ * handed to a pool is only counted when its task is wrapped with propagate(). A JDBC batch counts
+ * as one statement, as it is one round trip.
+ */
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    // Distinct statements kept per request for the slow-request log; any further ones are only counted
+    private static final int MAX_DISTINCT = 50;
+
+    /**
+     * Statements of one request. Sections loaded on other threads add to it concurrently.
+     */
+    public static final class Recording {
+
+        private record Totals(int executions, long elapsedMillis) {}
+
+        private final Map<String, Totals> byStatement = new LinkedHashMap<>();
+
+        private int count;
+
+        private synchronized void record(String sql, long elapsedMillis) {
+            count++;
+            Totals totals = byStatement.get(sql);
+            if (totals != null) {
+                byStatement.put(sql, new Totals(totals.executions() + 1, totals.elapsedMillis() + elapsedMillis));
+            } else if (byStatement.size() < MAX_DISTINCT) {
+                byStatement.put(sql, new Totals(1, elapsedMillis));
+            }
+        }
+
+        public synchronized int getCount() {
+            return count;
+        }
+
+        /**
+         * The statements that took the most time in total, as "3x 12 ms: select ...".
+         */
+        public synchronized List<String> slowest(int limit) {
+            return byStatement.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, Totals> e) -> e.getValue().elapsedMillis())
+                            .thenComparingInt(e -> e.getValue().executions())
+                            .reversed())
+                    .limit(limit)
+                    .map(e -> e.getValue().executions() + "x " + e.getValue().elapsedMillis() + " ms: " + e.getKey())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    public static Recording start() {
+        Recording recording = new Recording();
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs task against the calling thread's recording (usable as a TaskDecorator).
+     */
+    public static Runnable propagate(Runnable task) {
+        Recording recording = CURRENT.get();
+        if (recording == null) {
+            return task;
+        }
+        return () -> {
+            Recording previous = CURRENT.get();
+            CURRENT.set(recording);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Recording recording = CURRENT.get();
+        if (recording != null) {
+            String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            recording.record(sql, execInfo.getElapsedTime());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.recipeplatform.controller;
+
+import com.recipeplatform.config.PrincipalCache;
+import com.recipeplatform.dto.CacheRegionStats;
+import com.recipeplatform.dto.RatingDriftReport;
+import com.recipeplatform.dto.RecipeImportReport;
+import com.recipeplatform.dto.SuggestIndexStats;
+import com.recipeplatform.dto.TransferStatus;
+import com.recipeplatform.model.User;
+import com.recipeplatform.service.EntityCacheService;
+import com.recipeplatform.service.RatingAggregateReconciler;
+import com.recipeplatform.service.RecipeExportService;
+import com.recipeplatform.service.RecipeImportService;
+import com.recipeplatform.service.RecipeSuggestService;
+import com.recipeplatform.service.TransferTracker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AdminController {
+
+    @Autowired
+    private RatingAggregateReconciler ratingAggregateReconciler;
+
+    @Autowired
+    private RecipeSuggestService recipeSuggestService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private RecipeImportService recipeImportService;
+
+    @Autowired
+    private RecipeExportService recipeExportService;
+
+    @Autowired
+    private TransferTracker transferTracker;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    /**
+     * Rebuild the denormalized rating aggregates now and report drift.
+     * Secured by SecurityConfig to be ADMIN only.
+     */
+    @PostMapping("/ratings/reconcile")
+    public ResponseEntity<RatingDriftReport> reconcileRatings() {
+        return ResponseEntity.ok(ratingAggregateReconciler.reconcile());
+    }
+
+    // Size and estimated memory footprint of the typeahead index
+    @GetMapping("/suggest/stats")
+    public ResponseEntity<SuggestIndexStats> getSuggestStats() {
+        return ResponseEntity.ok(recipeSuggestService.getStats());
+    }
+
+    // Hit ratio, size and evictions of the JwtAuthFilter principal cache
+    @GetMapping("/cache/principals")
+    public ResponseEntity<Map<String, Object>> getPrincipalCacheStats() {
+        return ResponseEntity.ok(principalCache.getStats());
+    }
+
+    // Hits, misses, puts, size and evictions of each Hibernate second-level cache region
+    @GetMapping("/cache/regions")
+    public ResponseEntity<List<CacheRegionStats>> getEntityCacheStats() {
+        return ResponseEntity.ok(entityCacheService.getRegionStats());
+    }
+
+    // Empties the second-level cache, e.g. after editing rows directly in the database
+    @PostMapping("/cache/regions/evict")
+    public ResponseEntity<Void> evictEntityCache() {
+        entityCacheService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Bulk-imports a JSON array of recipes, streamed from the request body and committed in batches.
+     * Recipes without an "author" username are attributed to the calling admin.
+     */
+    @PostMapping(value = "/recipes/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importRecipes(HttpServletRequest request,
+                                           @AuthenticationPrincipal User admin) throws IOException {
+        try {
+            RecipeImportReport report = recipeImportService.importRecipes(request.getInputStream(), admin);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Same as above, for NDJSON bodies (one recipe per line, e.g. a previous export).
+     */
+    @PostMapping(value = "/recipes/import", consumes = "application/x-ndjson")
+    public ResponseEntity<?> importRecipesNdjson(HttpServletRequest request,
+                                                 @AuthenticationPrincipal User admin) throws IOException {
+        try {
+            RecipeImportReport report = recipeImportService.importNdjson(request.getInputStream(), admin);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Streams the whole catalog as NDJSON: one recipe per line, with rating aggregates and comments.
+     */
+    @GetMapping("/recipes/export")
+    public void exportRecipes(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"recipes.ndjson\"");
+        recipeExportService.export(response.getOutputStream());
+    }
+
+    // Rows done so far for running exports/imports, and the most recent finished ones
+    @GetMapping("/recipes/transfers")
+    public ResponseEntity<List<TransferStatus>> getTransfers() {
+        return ResponseEntity.ok(transferTracker.list());
+    }
+}
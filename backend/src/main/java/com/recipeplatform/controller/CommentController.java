@@ -1,5 +1,6 @@
 package com.recipeplatform.controller;
 
+import com.recipeplatform.dto.CommentPage;
 import com.recipeplatform.model.Comment;
 import com.recipeplatform.model.CommentRequest;
 import com.recipeplatform.model.User;
@@ -26,6 +27,19 @@ public class CommentController {
         return ResponseEntity.ok(commentService.getCommentsForRecipe(recipeId));
     }
 
+    // GET /api/recipes/{recipeId}/comments/page?cursor=...&size=20
+    @GetMapping("/page")
+    public ResponseEntity<CommentPage> getCommentPage(@PathVariable Long recipeId,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(commentService.getCommentPage(recipeId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            // Malformed or tampered cursor
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // POST /api/recipes/{recipeId}/comments
     @PostMapping
     public ResponseEntity<Comment> postComment(@PathVariable Long recipeId,
@@ -1,5 +1,8 @@
 package com.recipeplatform.controller;
 
+import com.recipeplatform.dto.CookRecommendation;
+import com.recipeplatform.dto.FollowCounts;
+import com.recipeplatform.dto.FollowList;
 import com.recipeplatform.model.User;
 import com.recipeplatform.service.FollowService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -33,10 +37,58 @@ public class FollowController {
         return ResponseEntity.noContent().build();
     }
 
+    // GET /api/follow/status?cookIds=12,15,40 (Which of these users I follow: {"12": true, "15": false, ...})
+    @GetMapping("/status")
+    public ResponseEntity<Map<Long, Boolean>> getFollowStatuses(@RequestParam List<Long> cookIds,
+                                                                @AuthenticationPrincipal User user) {
+        try {
+            return ResponseEntity.ok(followService.checkFollowStatus(user, cookIds));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // GET /api/follow/recommendations?limit=10 (Cooks I might want to follow)
+    @GetMapping("/recommendations")
+    public ResponseEntity<List<CookRecommendation>> getRecommendations(@RequestParam(defaultValue = "10") int limit,
+                                                                       @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(followService.getRecommendations(user, limit));
+    }
+
     // GET /api/follow/12/status (Check if I follow user 12)
     @GetMapping("/{cookId}/status")
     public ResponseEntity<Map<String, Boolean>> getFollowStatus(@PathVariable Long cookId,
                                                                 @AuthenticationPrincipal User user) {
         return ResponseEntity.ok(followService.checkFollowStatus(user, cookId));
     }
+
+    // GET /api/follow/12/counts (How many users follow user 12, and how many they follow)
+    @GetMapping("/{userId}/counts")
+    public ResponseEntity<FollowCounts> getCounts(@PathVariable Long userId) {
+        return ResponseEntity.ok(followService.getCounts(userId));
+    }
+
+    // GET /api/follow/12/followers?page=0&size=20
+    @GetMapping("/{userId}/followers")
+    public ResponseEntity<FollowList> getFollowers(@PathVariable Long userId,
+                                                   @RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(followService.getFollowers(userId, page, size));
+    }
+
+    // GET /api/follow/12/following?page=0&size=20
+    @GetMapping("/{userId}/following")
+    public ResponseEntity<FollowList> getFollowing(@PathVariable Long userId,
+                                                   @RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(followService.getFollowing(userId, page, size));
+    }
+
+    // GET /api/follow/12/mutual?page=0&size=20 (Users who follow user 12 and are followed back)
+    @GetMapping("/{userId}/mutual")
+    public ResponseEntity<FollowList> getMutuals(@PathVariable Long userId,
+                                                 @RequestParam(defaultValue = "0") int page,
+                                                 @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(followService.getMutuals(userId, page, size));
+    }
 }
@@ -0,0 +1,28 @@
+package com.recipeplatform.controller;
+
+import com.recipeplatform.dto.LoadTestReport;
+import com.recipeplatform.loadtest.LoadTestScenarioRunner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Only present with the loadtest profile. Secured by SecurityConfig to be ADMIN only.
+ */
+@RestController
+@RequestMapping("/api/admin/loadtest")
+@CrossOrigin(origins = "http://localhost:3000")
+@Profile("loadtest")
+public class LoadTestController {
+
+    @Autowired
+    private LoadTestScenarioRunner scenarioRunner;
+
+    // Blocks for the warmup plus the measured duration, then returns latency per endpoint
+    @PostMapping("/run")
+    public ResponseEntity<LoadTestReport> run(@RequestParam(defaultValue = "60") int durationSeconds,
+                                              @RequestParam(defaultValue = "16") int concurrency) {
+        return ResponseEntity.ok(scenarioRunner.run(durationSeconds, concurrency));
+    }
+}
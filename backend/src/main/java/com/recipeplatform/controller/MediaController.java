@@ -0,0 +1,160 @@
+package com.recipeplatform.controller;
+
+import com.recipeplatform.dto.MediaDto;
+import com.recipeplatform.model.MediaAsset;
+import com.recipeplatform.model.User;
+import com.recipeplatform.service.MediaService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/media")
+@CrossOrigin(origins = "http://localhost:3000")
+public class MediaController {
+
+    // Tomcat's sendfile request attributes (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // A media URL always returns the same bytes (it is their hash), so browsers and proxies may keep it for good
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    @Autowired
+    private MediaService mediaService;
+
+    // POST /api/media with the file itself as the body and its type as Content-Type (no multipart)
+    @PostMapping
+    public ResponseEntity<MediaDto> upload(HttpServletRequest request, @AuthenticationPrincipal User user) throws IOException {
+        Optional<MediaAsset.Kind> kind = mediaService.kindOf(request.getContentType());
+        if (kind.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        // Refused before reading when the client says how big it is; otherwise while reading
+        if (request.getContentLengthLong() > mediaService.maxSize(kind.get())) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        try {
+            MediaAsset asset = mediaService.store(user, request.getContentType(), request.getInputStream());
+            return ResponseEntity.status(HttpStatus.CREATED).body(toDto(asset));
+        } catch (MaxUploadSizeExceededException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+    }
+
+    @GetMapping("/{hash}")
+    public void getOriginal(@PathVariable String hash, ServletWebRequest request) throws IOException {
+        send(mediaService.original(hash), request);
+    }
+
+    // GET /api/media/{hash}/card, /api/media/{hash}/thumb
+    @GetMapping("/{hash}/{variant}")
+    public void getVariant(@PathVariable String hash, @PathVariable String variant,
+                           ServletWebRequest request) throws IOException {
+        Optional<MediaService.Variant> resized = MediaService.Variant.fromPath(variant);
+        send(resized.isPresent() ? mediaService.variant(hash, resized.get()) : Optional.empty(), request);
+    }
+
+    private MediaDto toDto(MediaAsset asset) {
+        String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/media/{hash}").buildAndExpand(asset.getHash()).toUriString();
+        boolean image = asset.getKind() == MediaAsset.Kind.IMAGE;
+        return new MediaDto(asset.getHash(), asset.getContentType(), asset.getSize(), asset.getKind(),
+                asset.getVariantStatus(), url,
+                image ? url + "/" + MediaService.Variant.CARD.pathName() : null,
+                image ? url + "/" + MediaService.Variant.THUMB.pathName() : null);
+    }
+
+    // Conditional GET on the hash, then the whole file or a single byte range (video seeking)
+    private void send(Optional<MediaService.Blob> found, ServletWebRequest webRequest) throws IOException {
+        HttpServletRequest request = webRequest.getRequest();
+        HttpServletResponse response = webRequest.getResponse();
+        // setStatus, not sendError: an error dispatch to /error would be answered by security with a 403
+        if (found.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        MediaService.Blob blob = found.get();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, (blob.immutable() ? IMMUTABLE : CacheControl.noCache()).getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (webRequest.checkNotModified(blob.etag())) {
+            return;
+        }
+
+        long size = blob.size();
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, blob)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // A malformed Range, or several ranges, get the whole file, which HTTP allows
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(size);
+                end = ranges.get(0).getRangeEnd(size);
+                if (start >= size) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(blob.contentType());
+        response.setContentLengthLong(length);
+        if (length > 0 && !HttpMethod.HEAD.matches(request.getMethod())) {
+            transfer(blob, start, length, request, response);
+        }
+    }
+
+    // A range is only served if the client's copy (If-Range) is still this file
+    private boolean ifRangeMatches(HttpServletRequest request, MediaService.Blob blob) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        return ifRange == null || ifRange.equals("\"" + blob.etag() + "\"");
+    }
+
+    private void transfer(MediaService.Blob blob, long start, long length,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> file = mediaService.localFile(blob);
+        if (file.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat sends the file after the handler returns, with FileChannel.transferTo straight to the
+            // socket (sendfile): the bytes never pass through the heap
+            request.setAttribute(SENDFILE_FILENAME, file.get().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        // No sendfile (a TLS connector, or a store without local files): copied through a buffer
+        try (InputStream in = mediaService.open(blob)) {
+            StreamUtils.copyRange(in, response.getOutputStream(), start, start + length - 1);
+        }
+    }
+}
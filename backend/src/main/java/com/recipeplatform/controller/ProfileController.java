@@ -1,10 +1,12 @@
 package com.recipeplatform.controller;
 
+import com.recipeplatform.dto.ProfileSummary;
 import com.recipeplatform.dto.RecipeDto;
 import com.recipeplatform.model.Comment;
 import com.recipeplatform.model.Rating;
 import com.recipeplatform.model.User;
 import com.recipeplatform.service.CommentService;
+import com.recipeplatform.service.ProfileSummaryService;
 import com.recipeplatform.service.RatingService;
 import com.recipeplatform.service.RecipeService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +15,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -31,6 +34,20 @@ public class ProfileController {
     @Autowired
     private RatingService ratingService;
 
+    @Autowired
+    private ProfileSummaryService profileSummaryService;
+
+    // Recipes, comments and ratings in one call, loaded in parallel; each section is paged on its own
+    // GET /api/profile/summary?size=10&recipesPage=0&commentsPage=0&ratingsPage=0
+    @GetMapping("/summary")
+    public ResponseEntity<ProfileSummary> getSummary(@AuthenticationPrincipal User user,
+                                                     @RequestParam(defaultValue = "10") int size,
+                                                     @RequestParam(defaultValue = "0") int recipesPage,
+                                                     @RequestParam(defaultValue = "0") int commentsPage,
+                                                     @RequestParam(defaultValue = "0") int ratingsPage) {
+        return ResponseEntity.ok(profileSummaryService.getSummary(user.getId(), size, recipesPage, commentsPage, ratingsPage));
+    }
+
     // Endpoint for "My Recipes"
     @GetMapping("/my-recipes")
     public ResponseEntity<List<RecipeDto>> getMyRecipes(@AuthenticationPrincipal User user) {
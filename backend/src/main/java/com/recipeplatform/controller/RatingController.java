@@ -21,18 +21,24 @@ public class RatingController {
 
     // Endpoint for submitting a new rating
     // POST /api/recipes/{recipeId}/ratings
+    // 202 with the queued vote on PostgreSQL, otherwise 200 with the saved rating
     @PostMapping
-    public ResponseEntity<Rating> submitRating(@PathVariable Long recipeId,
-                                               @AuthenticationPrincipal User user,
-                                               @RequestBody RatingRequest ratingRequest) {
+    public ResponseEntity<?> submitRating(@PathVariable Long recipeId,
+                                          @AuthenticationPrincipal User user,
+                                          @RequestBody RatingRequest ratingRequest) {
+        if (ratingService.isQueued()) {
+            return ResponseEntity.accepted().body(ratingService.queueRating(recipeId, user, ratingRequest));
+        }
         Rating savedRating = ratingService.submitRating(recipeId, user, ratingRequest);
         return ResponseEntity.ok(savedRating);
     }
 
     // Endpoint for getting the average rating
     // GET /api/recipes/{recipeId}/ratings/average
+    // Send the token to see your own just-submitted vote included
     @GetMapping("/average")
-    public ResponseEntity<Map<String, Double>> getAverageRating(@PathVariable Long recipeId) {
-        return ResponseEntity.ok(ratingService.getAverageRating(recipeId));
+    public ResponseEntity<Map<String, Double>> getAverageRating(@PathVariable Long recipeId,
+                                                                @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(ratingService.getAverageRating(recipeId, user));
     }
 }
\ No newline at end of file
@@ -2,16 +2,30 @@ package com.recipeplatform.controller;
 
 import com.recipeplatform.model.Recipe;
 import com.recipeplatform.model.User;
+import com.recipeplatform.service.CatalogVersion;
+import com.recipeplatform.service.FollowService;
+import com.recipeplatform.service.RecipeCardStreamer;
 import com.recipeplatform.service.RecipeService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import org.springframework.http.HttpStatus; // <-- IMPORT
 import com.recipeplatform.dto.RecipeDto; // <-- ADD THIS
+import com.recipeplatform.dto.CursorPage;
+import com.recipeplatform.dto.RecipeVersion;
+import com.recipeplatform.dto.Suggestion;
 @RestController
 @RequestMapping("/api/recipes")
 @CrossOrigin(origins = "http://localhost:3000")
@@ -20,30 +34,99 @@ public class RecipeController {
     @Autowired
     private RecipeService recipeService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private RecipeCardStreamer recipeCardStreamer;
+
+    @Autowired
+    private FollowService followService;
+
     @GetMapping("/feed")
-    public ResponseEntity<List<RecipeDto>> getMyFeed(@AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(recipeService.getFeedForUser(user));
+    public ResponseEntity<List<RecipeDto>> getMyFeed(@AuthenticationPrincipal User user, WebRequest request) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return cardList(request, user.getId(), recipeService.getFeedVersion(user),
+                () -> followService.withFollowStatus(user, recipeService.getFeedForUser(user)));
+    }
+
+    // GET /api/recipes/feed/page?cursor=...&size=20
+    @GetMapping("/feed/page")
+    public ResponseEntity<CursorPage<RecipeDto>> getMyFeedPage(@AuthenticationPrincipal User user,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") int size,
+                                                               WebRequest request) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return cardList(request, user.getId(), recipeService.getFeedVersion(user),
+                    () -> followService.withFollowStatus(user, recipeService.getFeedPage(user, cursor, size)));
+        } catch (IllegalArgumentException e) {
+            // Malformed or tampered cursor
+            return ResponseEntity.badRequest().build();
+        }
     }
     
+    // Streamed as it is read (see RecipeCardStreamer)
     @GetMapping
-    public ResponseEntity<List<RecipeDto>> getAllRecipes() {
-        return ResponseEntity.ok(recipeService.getAllRecipes());
+    public void getAllRecipes(WebRequest request, HttpServletResponse response) throws IOException {
+        streamedCardList(request, response, recipeService.getNewestVersion(), recipeCardStreamer::writeNewest);
+    }
+
+    // GET /api/recipes/discover?cursor=...&size=20
+    @GetMapping("/discover")
+    public ResponseEntity<CursorPage<RecipeDto>> getDiscoverPage(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = "20") int size,
+                                                                 @AuthenticationPrincipal User user,
+                                                                 WebRequest request) {
+        try {
+            return cardList(request, viewerId(user), forViewer(recipeService.getDiscoverVersion(cursor, size), user),
+                    () -> followService.withFollowStatus(user, recipeService.getDiscoverPage(cursor, size)));
+        } catch (IllegalArgumentException e) {
+            // Malformed or tampered cursor
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Recipe> getRecipeById(@PathVariable Long id) {
+    public ResponseEntity<Recipe> getRecipeById(@PathVariable Long id, WebRequest request) {
+        Optional<RecipeVersion> version = recipeService.getRecipeVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // The client's copy is current: 304 without loading the recipe
+        if (request.checkNotModified(version.get().etag(), version.get().lastModified())) {
+            return null;
+        }
         Optional<Recipe> recipe = recipeService.getRecipeById(id);
-        return recipe.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        return recipe.map(r -> ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(r))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Recipe>> getRecipesByCategory(@PathVariable Recipe.Category category) {
-        return ResponseEntity.ok(recipeService.getRecipesByCategory(category));
+    public void getRecipesByCategory(@PathVariable Recipe.Category category, WebRequest request,
+                                     HttpServletResponse response) throws IOException {
+        streamedCardList(request, response, recipeService.getCategoryVersion(category),
+                out -> recipeCardStreamer.writeCategory(category, out));
     }
 
+    // GET /api/recipes/suggest?prefix=chi
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(@RequestParam String prefix,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(recipeService.suggest(prefix, limit));
+    }
+
+    // GET /api/recipes/search?keyword=chicken curry&page=0&size=20
     @GetMapping("/search")
-    public ResponseEntity<List<Recipe>> searchRecipes(@RequestParam String keyword) {
-        return ResponseEntity.ok(recipeService.searchRecipes(keyword));
+    public ResponseEntity<List<RecipeDto>> searchRecipes(@RequestParam String keyword,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "20") int size,
+                                                         @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(followService.withFollowStatus(user, recipeService.searchRecipes(keyword, page, size)));
     }
 
     @PostMapping
@@ -97,8 +180,54 @@ public class RecipeController {
         return ResponseEntity.noContent().build();
     }
 
+    // GET /api/recipes/top-rated                                  -> whole leaderboard
+    // GET /api/recipes/top-rated?category=VEGAN&page=0&size=20     -> one page, one category
     @GetMapping("/top-rated")
-    public ResponseEntity<List<RecipeDto>> getTopRatedRecipes() {
-        return ResponseEntity.ok(recipeService.getTopRatedRecipes());
+    public ResponseEntity<List<RecipeDto>> getTopRatedRecipes(@RequestParam(required = false) Recipe.Category category,
+                                                              @RequestParam(defaultValue = "0") int page,
+                                                              @RequestParam(required = false) Integer size,
+                                                              @AuthenticationPrincipal User user,
+                                                              WebRequest request) {
+        CatalogVersion.Stamp version = forViewer(recipeService.getTopRatedVersion(category), user);
+        if (category == null && size == null) {
+            return cardList(request, viewerId(user), version,
+                    () -> followService.withFollowStatus(user, recipeService.getTopRatedRecipes()));
+        }
+        return cardList(request, viewerId(user), version, () -> followService.withFollowStatus(user,
+                recipeService.getTopRatedRecipes(category, page, size == null ? 20 : size)));
+    }
+
+    // Signed-in viewers get isFollowing on every card, so their copy of a public list is theirs alone
+    private static Long viewerId(User user) {
+        return user == null ? null : user.getId();
+    }
+
+    private CatalogVersion.Stamp forViewer(CatalogVersion.Stamp stamp, User user) {
+        return catalogVersion.forViewer(stamp, viewerId(user));
+    }
+
+    // Each card list has its own validator (see CatalogVersion): a client whose copy is current gets
+    // a 304 before the list is read. viewerId is set for signed-in viewers and per-user feeds.
+    private <T> ResponseEntity<T> cardList(WebRequest request, Long viewerId, CatalogVersion.Stamp stamp, Supplier<T> body) {
+        if (request.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return null;
+        }
+        CacheControl cacheControl = viewerId == null ? CacheControl.noCache() : CacheControl.noCache().cachePrivate();
+        return ResponseEntity.ok().cacheControl(cacheControl).body(body.get());
+    }
+
+    private interface CardWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    // Same validation as cardList, for the public lists that are written straight to the response
+    private void streamedCardList(WebRequest request, HttpServletResponse response, CatalogVersion.Stamp stamp,
+                                  CardWriter body) throws IOException {
+        if (request.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        body.writeTo(response.getOutputStream());
     }
 }
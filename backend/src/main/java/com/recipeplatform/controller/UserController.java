@@ -10,6 +10,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
@@ -46,7 +47,25 @@ public class UserController {
         return ResponseEntity.ok(recipeService.getRecipesByUserId(id));
     }
 
-    
+    /**
+     * Change a user's role. Secured by SecurityConfig to be ADMIN only.
+     * Body: { "role": "COOK" }
+     */
+    @PutMapping("/{id}/role")
+    public ResponseEntity<User> updateRole(@PathVariable Long id,
+                                           @RequestBody Map<String, User.Role> body,
+                                           @AuthenticationPrincipal User adminUser) {
+        User.Role role = body.get("role");
+        if (role == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(userService.updateRole(id, role, adminUser));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Delete a user. Secured by SecurityConfig to be ADMIN only.
      */
@@ -0,0 +1,5 @@
+package com.recipeplatform.dto;
+
+// One second-level cache region; size and evictions (capacity only, not invalidations) are -1 if the provider doesn't report them
+public record CacheRegionStats(String region, long hits, long misses, long puts, double hitRatio, long size, long evictions) {
+}
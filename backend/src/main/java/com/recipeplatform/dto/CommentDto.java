@@ -0,0 +1,10 @@
+package com.recipeplatform.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A comment as shown in a recipe's thread: built directly by the query, no entities loaded.
+ * userId lets the client decide whether to offer "delete".
+ */
+public record CommentDto(Long id, String content, Long userId, String username, LocalDateTime createdAt) {
+}
@@ -0,0 +1,19 @@
+package com.recipeplatform.dto;
+
+import java.util.List;
+
+/**
+ * One page of a recipe's comment thread plus the recipe's total comment count
+ * (read from the denormalized Recipe.commentCount, not counted per request).
+ */
+public class CommentPage extends CursorPage<CommentDto> {
+
+    private final long totalCount;
+
+    public CommentPage(List<CommentDto> items, String nextCursor, long totalCount) {
+        super(items, nextCursor);
+        this.totalCount = totalCount;
+    }
+
+    public long getTotalCount() { return totalCount; }
+}
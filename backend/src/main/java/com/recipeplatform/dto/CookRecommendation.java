@@ -0,0 +1,5 @@
+package com.recipeplatform.dto;
+
+// A cook suggested to follow; followedBy is how many of the cooks the user follows already follow them
+public record CookRecommendation(Long id, String username, double score, int followedBy) {
+}
@@ -0,0 +1,35 @@
+package com.recipeplatform.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing.
+ * nextCursor is null when there are no more rows after this page.
+ */
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds a page from a query that fetched pageSize + 1 rows;
+     * the extra row only signals that another page exists.
+     */
+    public static <T> CursorPage<T> fromRows(List<T> rows, int pageSize, Function<T, String> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, cursorOf.apply(page.get(pageSize - 1)));
+    }
+
+    public List<T> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return nextCursor != null; }
+}
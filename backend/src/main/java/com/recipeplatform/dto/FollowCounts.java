@@ -0,0 +1,5 @@
+package com.recipeplatform.dto;
+
+// How many users follow a user, and how many they follow
+public record FollowCounts(long followers, long following) {
+}
@@ -0,0 +1,13 @@
+package com.recipeplatform.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's followers, followings or mutual follows (in user id order) and the list's total size.
+ */
+public record FollowList(List<UserRef> items, int page, int size, long totalCount) {
+
+    public boolean isHasMore() {
+        return (long) (page + 1) * size < totalCount;
+    }
+}
@@ -0,0 +1,24 @@
+package com.recipeplatform.dto;
+
+import java.util.List;
+
+/**
+ * Latency per endpoint from one load-test scenario run (loadtest profile).
+ * Latencies are in milliseconds and only cover the measured phase, not the warmup.
+ */
+public record LoadTestReport(int concurrency, long measuredMillis, List<EndpointStats> endpoints) {
+
+    public record EndpointStats(String endpoint, long requests, long errors, double throughputPerSecond,
+                                double p50Millis, double p99Millis, double maxMillis) {}
+
+    // Fixed-width table for the log
+    public String toTable() {
+        StringBuilder table = new StringBuilder(String.format("%-40s %9s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+        for (EndpointStats e : endpoints) {
+            table.append(String.format("%-40s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", e.endpoint(), e.requests(),
+                    e.errors(), e.throughputPerSecond(), e.p50Millis(), e.p99Millis(), e.maxMillis()));
+        }
+        return table.toString();
+    }
+}
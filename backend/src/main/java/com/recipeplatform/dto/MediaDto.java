@@ -0,0 +1,11 @@
+package com.recipeplatform.dto;
+
+import com.recipeplatform.model.MediaAsset;
+
+/**
+ * An uploaded file as returned by POST /api/media. url goes into a recipe's imageUrl or videoUrl;
+ * cardUrl and thumbnailUrl are the resized versions of an image (null for videos).
+ */
+public record MediaDto(String hash, String contentType, long size, MediaAsset.Kind kind,
+                       MediaAsset.VariantStatus variantStatus, String url, String cardUrl, String thumbnailUrl) {
+}
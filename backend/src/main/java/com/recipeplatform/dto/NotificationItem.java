@@ -0,0 +1,11 @@
+package com.recipeplatform.dto;
+
+import com.recipeplatform.model.NotificationEvent;
+
+/**
+ * A pending notification with the names it is mailed with. actorName and recipeTitle are
+ * null when that user or recipe has been deleted since.
+ */
+public record NotificationItem(Long id, Long recipientId, String recipientEmail, String recipientName,
+                               NotificationEvent.Type type, String actorName, Long recipeId, String recipeTitle,
+                               int attempts) {}
@@ -0,0 +1,9 @@
+package com.recipeplatform.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A vote accepted by RatingIngestionQueue that has not been written to the ratings table yet.
+ * Also the body of the 202 response to POST /api/recipes/{recipeId}/ratings.
+ */
+public record PendingRating(Long recipeId, Long userId, int score, LocalDateTime submittedAt) {}
@@ -0,0 +1,14 @@
+package com.recipeplatform.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One of the user's own comments on the profile page, built directly by the query.
+ */
+public record ProfileComment(Long id, String content, LocalDateTime createdAt, RecipeRef recipe) {
+
+    // Constructor used by the JPQL constructor expression
+    public ProfileComment(Long id, String content, LocalDateTime createdAt, Long recipeId, String recipeTitle) {
+        this(id, content, createdAt, new RecipeRef(recipeId, recipeTitle));
+    }
+}
@@ -0,0 +1,14 @@
+package com.recipeplatform.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One of the user's own ratings on the profile page, built directly by the query.
+ */
+public record ProfileRating(Long id, Integer score, LocalDateTime createdAt, RecipeRef recipe) {
+
+    // Constructor used by the JPQL constructor expression
+    public ProfileRating(Long id, Integer score, LocalDateTime createdAt, Long recipeId, String recipeTitle) {
+        this(id, score, createdAt, new RecipeRef(recipeId, recipeTitle));
+    }
+}
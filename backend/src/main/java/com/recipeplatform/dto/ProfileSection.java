@@ -0,0 +1,19 @@
+package com.recipeplatform.dto;
+
+import java.util.List;
+
+/**
+ * One page of a profile section (recipes, comments or ratings) and the section's total size.
+ * timedOut is set, with no items, when the section didn't load within its time budget;
+ * the client can fetch that section again on its own.
+ */
+public record ProfileSection<T>(List<T> items, int page, int size, long totalCount, boolean timedOut) {
+
+    public static <T> ProfileSection<T> timedOut(int page, int size) {
+        return new ProfileSection<>(List.of(), page, size, 0, true);
+    }
+
+    public boolean isHasMore() {
+        return (long) (page + 1) * size < totalCount;
+    }
+}
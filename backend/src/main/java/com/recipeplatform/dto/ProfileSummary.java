@@ -0,0 +1,11 @@
+package com.recipeplatform.dto;
+
+/**
+ * Everything the profile page shows, in one response (GET /api/profile/summary).
+ * averageRating is the mean of all the user's scores, null if the ratings section timed out.
+ */
+public record ProfileSummary(ProfileSection<RecipeDto> recipes,
+                             ProfileSection<ProfileComment> comments,
+                             ProfileSection<ProfileRating> ratings,
+                             Double averageRating) {
+}
@@ -0,0 +1,10 @@
+package com.recipeplatform.dto;
+
+import java.util.List;
+
+/**
+ * Result of one rating-aggregate reconciliation run.
+ * driftedRecipeIds is capped, driftedRecipes is the full count.
+ */
+public record RatingDriftReport(int driftedRecipes, List<Long> driftedRecipeIds, long elapsedMillis) {
+}
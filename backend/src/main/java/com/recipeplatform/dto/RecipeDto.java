@@ -1,6 +1,9 @@
 package com.recipeplatform.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.recipeplatform.model.Recipe;
+import java.time.LocalDateTime;
 
 public class RecipeDto {
 
@@ -9,10 +12,13 @@ public class RecipeDto {
     private String description;
     private String imageUrl;
     private Recipe.Category category;
+    private Long userId; // The author
     private String username;
     private Double averageRating; // This will hold the calculated average
+    private long ratingCount;
+    private LocalDateTime createdAt;
+    private Boolean following; // Whether the viewer follows the author; null when not looked up
 
-    // Constructor that Hibernate will use
     public RecipeDto(Long id, String title, String description, String imageUrl, 
                      Recipe.Category category, String username, Double averageRating) {
         this.id = id;
@@ -24,12 +30,50 @@ public class RecipeDto {
         this.averageRating = (averageRating == null) ? 0.0 : averageRating; // Ensure it's not null
     }
 
+    // Constructor that Hibernate will use: the average comes from the
+    // denormalized ratingSum/ratingCount columns on Recipe, so no join on ratings is needed
+    public RecipeDto(Long id, String title, String description, String imageUrl,
+                     Recipe.Category category, Long userId, String username,
+                     Long ratingSum, Long ratingCount, LocalDateTime createdAt) {
+        this(id, title, description, imageUrl, category, username, ratingSum, ratingCount, createdAt);
+        this.userId = userId;
+    }
+
+    public RecipeDto(Long id, String title, String description, String imageUrl,
+                     Recipe.Category category, String username,
+                     Long ratingSum, Long ratingCount, LocalDateTime createdAt) {
+        this(id, title, description, imageUrl, category, username,
+             (ratingCount == null || ratingCount == 0) ? 0.0 : (double) ratingSum / ratingCount);
+        this.ratingCount = (ratingCount == null) ? 0 : ratingCount;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * A copy with the viewer's follow status. Cards can be shared (the leaderboard keeps them),
+     * so the flag is never set on the original.
+     */
+    public RecipeDto withFollowing(boolean following) {
+        RecipeDto copy = new RecipeDto(id, title, description, imageUrl, category, username, averageRating);
+        copy.userId = userId;
+        copy.ratingCount = ratingCount;
+        copy.createdAt = createdAt;
+        copy.following = following;
+        return copy;
+    }
+
     // Getters for all fields
     public Long getId() { return id; }
     public String getTitle() { return title; }
     public String getDescription() { return description; }
     public String getImageUrl() { return imageUrl; }
     public Recipe.Category getCategory() { return category; }
+    public Long getUserId() { return userId; }
     public String getUsername() { return username; }
     public Double getAverageRating() { return averageRating; }
-}
\ No newline at end of file
+    public long getRatingCount() { return ratingCount; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    @JsonProperty("isFollowing")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Boolean getFollowing() { return following; }
+}
@@ -0,0 +1,20 @@
+package com.recipeplatform.dto;
+
+import com.recipeplatform.model.Recipe;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One line of the NDJSON catalog export (/api/admin/recipes/export).
+ * The same line can be posted back to the NDJSON import; id and the rating fields are
+ * informational there (imported recipes get new ids and start without ratings).
+ */
+public record RecipeExportLine(Long id, String title, String description, String ingredients, String instructions,
+                               Recipe.Category category, String imageUrl, String videoUrl, String author,
+                               LocalDateTime createdAt, LocalDateTime updatedAt,
+                               long ratingCount, long ratingSum, double averageRating,
+                               List<CommentLine> comments) {
+
+    public record CommentLine(String author, String content, LocalDateTime createdAt) {}
+}
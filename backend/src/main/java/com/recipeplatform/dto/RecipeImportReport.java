@@ -0,0 +1,11 @@
+package com.recipeplatform.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk recipe import. Rows that failed validation are skipped;
+ * errors holds the first few reasons, prefixed with the row's position in the array.
+ */
+public record RecipeImportReport(int imported, int skipped, int batches, long elapsedMillis,
+                                 double recipesPerSecond, List<String> errors) {
+}
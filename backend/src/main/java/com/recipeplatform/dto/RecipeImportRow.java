@@ -0,0 +1,17 @@
+package com.recipeplatform.dto;
+
+import com.recipeplatform.model.Recipe;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One recipe of a bulk import: an element of the JSON array posted to /api/admin/recipes/import,
+ * or one line of the NDJSON variant (which accepts RecipeExportLine; unknown fields are ignored).
+ * author is a username (defaults to the importing admin); createdAt defaults to now.
+ */
+public record RecipeImportRow(String title, String description, String ingredients, String instructions,
+                              Recipe.Category category, String imageUrl, String videoUrl,
+                              String author, LocalDateTime createdAt, LocalDateTime updatedAt,
+                              List<RecipeExportLine.CommentLine> comments) {
+}
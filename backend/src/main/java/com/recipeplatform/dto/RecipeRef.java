@@ -0,0 +1,5 @@
+package com.recipeplatform.dto;
+
+// The recipe a comment or rating belongs to, as much as a profile list shows of it
+public record RecipeRef(Long id, String title) {
+}
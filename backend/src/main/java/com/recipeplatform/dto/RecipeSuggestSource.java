@@ -0,0 +1,5 @@
+package com.recipeplatform.dto;
+
+// The fields of a recipe that feed the typeahead index
+public record RecipeSuggestSource(Long id, String title, String ingredients, String username, long ratingSum) {
+}
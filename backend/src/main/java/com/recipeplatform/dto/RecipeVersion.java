@@ -0,0 +1,21 @@
+package com.recipeplatform.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validators of one recipe's detail page (GET /api/recipes/{id}), read without loading the entity.
+ * The counts are part of the ETag as well: they are on the page, and two changes can share a timestamp.
+ */
+public record RecipeVersion(Long id, LocalDateTime changedAt, long ratingCount, long ratingSum, long commentCount) {
+
+    public String etag() {
+        return "W/\"" + id + "-" + Long.toString(lastModified(), 36) + "-" + ratingCount + "-" + ratingSum
+                + "-" + commentCount + "\"";
+    }
+
+    // Epoch millis, or -1 for rows that have never been stamped
+    public long lastModified() {
+        return changedAt == null ? -1 : changedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
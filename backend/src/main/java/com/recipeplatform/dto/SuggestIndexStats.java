@@ -0,0 +1,5 @@
+package com.recipeplatform.dto;
+
+// Size of the in-memory typeahead index; estimatedBytes is a shallow-size estimate
+public record SuggestIndexStats(int recipes, int terms, int nodes, long estimatedBytes) {
+}
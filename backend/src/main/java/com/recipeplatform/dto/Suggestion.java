@@ -0,0 +1,5 @@
+package com.recipeplatform.dto;
+
+// One typeahead completion; type is RECIPE, INGREDIENT or COOK
+public record Suggestion(String text, String type, long weight) {
+}
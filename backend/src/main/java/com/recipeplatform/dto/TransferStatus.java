@@ -0,0 +1,11 @@
+package com.recipeplatform.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a running or recently finished catalog export/import (GET /api/admin/recipes/transfers).
+ * state is RUNNING, DONE or FAILED; error is only set when FAILED.
+ */
+public record TransferStatus(long id, String kind, String state, LocalDateTime startedAt,
+                             long rows, long skipped, long elapsedMillis, double rowsPerSecond, String error) {
+}
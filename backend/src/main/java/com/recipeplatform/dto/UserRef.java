@@ -0,0 +1,5 @@
+package com.recipeplatform.dto;
+
+// A user as a follower or following list shows them
+public record UserRef(Long id, String username) {
+}
@@ -0,0 +1,126 @@
+package com.recipeplatform.loadtest;
+
+import com.recipeplatform.dto.LoadTestReport;
+import com.recipeplatform.service.CookRecommender;
+import com.recipeplatform.service.EntityCacheService;
+import com.recipeplatform.service.FollowGraph;
+import com.recipeplatform.service.RecipeSuggestService;
+import com.recipeplatform.service.TimelineService;
+import com.recipeplatform.service.TopRatedLeaderboard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Seeds the database with a SyntheticDataGenerator catalog when the app runs with
+ * the loadtest profile, then optionally runs the traffic scenario once.
+ * Seeding is skipped when generated users already exist.
+ *
+ * Every generated user's password is loadtest.password.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestDataLoader.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private TopRatedLeaderboard topRatedLeaderboard;
+
+    @Autowired
+    private RecipeSuggestService recipeSuggestService;
+
+    @Autowired
+    private LoadTestScenarioRunner scenarioRunner;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private FollowGraph followGraph;
+
+    @Autowired
+    private CookRecommender cookRecommender;
+
+    @Value("${loadtest.users:2000}")
+    private int users;
+
+    @Value("${loadtest.recipes:20000}")
+    private int recipes;
+
+    @Value("${loadtest.follows-per-user:50}")
+    private int followsPerUser;
+
+    @Value("${loadtest.ratings-per-recipe:5}")
+    private int ratingsPerRecipe;
+
+    @Value("${loadtest.comments-per-recipe:2}")
+    private int commentsPerRecipe;
+
+    @Value("${loadtest.seed:42}")
+    private long seed;
+
+    @Value("${loadtest.password:loadtest}")
+    private String password;
+
+    @Value("${loadtest.run-on-startup:false}")
+    private boolean runOnStartup;
+
+    // Runs after the other startup listeners so the in-memory indexes are rebuilt from the seeded data
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onStartup() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username LIKE ?",
+                Integer.class, SyntheticDataGenerator.USERNAME_PREFIX.replace("_", "\\_") + "%");
+        if (existing != null && existing > 0) {
+            log.info("Load-test data already present ({} users), skipping generation", existing);
+        } else {
+            generate();
+        }
+        if (runOnStartup) {
+            LoadTestReport report = scenarioRunner.run();
+            log.info("Load test finished:\n{}", report.toTable());
+        }
+    }
+
+    private void generate() {
+        long start = System.currentTimeMillis();
+        SyntheticDataGenerator.Settings settings = new SyntheticDataGenerator.Settings(
+                users, recipes, followsPerUser, ratingsPerRecipe, commentsPerRecipe, seed);
+        String passwordHash = passwordEncoder.encode(password);
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(tx -> new SyntheticDataGenerator(settings).generate(jdbcTemplate, passwordHash));
+        log.info("Generated load-test data {} in {} ms", settings, System.currentTimeMillis() - start);
+
+        // Derived data (follower counts, timelines, follow graph, recommendations, leaderboard, typeahead, second-level cache) was built from the empty tables
+        entityCacheService.evictAll();
+        timelineService.initialize();
+        followGraph.load();
+        cookRecommender.recomputeAll();
+        topRatedLeaderboard.rebuild();
+        recipeSuggestService.rebuild();
+    }
+}
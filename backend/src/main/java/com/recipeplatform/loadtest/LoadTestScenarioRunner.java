@@ -0,0 +1,333 @@
+package com.recipeplatform.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipeplatform.config.JwtUtil;
+import com.recipeplatform.dto.LoadTestReport;
+import com.recipeplatform.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Replays a weighted mix of feed, search, rating and comment requests against this
+ * running instance over HTTP (so the security filter, serialization and Tomcat are
+ * included), and reports p50/p99 latency per endpoint.
+ *
+ * Each worker thread is one virtual user: it signs in as a random generated user,
+ * scrolls the Following feed by cursor, and switches account every 10-30 requests.
+ * Ratings and comments target popular (low-rank) recipes more often, like the generated data.
+ */
+@Service
+@Profile("loadtest")
+public class LoadTestScenarioRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestScenarioRunner.class);
+
+    private static final int MAX_ACCOUNTS = 500;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${loadtest.duration-seconds:60}")
+    private int durationSeconds;
+
+    @Value("${loadtest.warmup-seconds:10}")
+    private int warmupSeconds;
+
+    @Value("${loadtest.concurrency:16}")
+    private int concurrency;
+
+    // operation=weight pairs; operations: feed, discover, search, comments, rate, comment
+    @Value("${loadtest.mix:feed=30,discover=20,search=15,comments=15,rate=10,comment=10}")
+    private String mix;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public LoadTestReport run() {
+        return run(durationSeconds, concurrency);
+    }
+
+    public LoadTestReport run(int durationSeconds, int concurrency) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("A load test is already running");
+        }
+        try {
+            return execute(durationSeconds, concurrency);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private LoadTestReport execute(int durationSeconds, int concurrency) {
+        String port = environment.getProperty("local.server.port");
+        if (port == null) {
+            throw new RuntimeException("Load tests need the embedded web server to be running");
+        }
+        String baseUrl = "http://localhost:" + port;
+
+        List<String> tokens = new ArrayList<>();
+        for (String username : jdbcTemplate.queryForList("SELECT username FROM users WHERE username LIKE ? ORDER BY id LIMIT ?",
+                String.class, SyntheticDataGenerator.USERNAME_PREFIX.replace("_", "\\_") + "%", MAX_ACCOUNTS)) {
+            tokens.add(jwtUtil.generateToken(userService.loadUserByUsername(username)));
+        }
+        long[] recipeIds = jdbcTemplate.queryForList("SELECT id FROM recipes ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        if (tokens.isEmpty() || recipeIds.length == 0) {
+            throw new RuntimeException("No load-test data; start with the loadtest profile to generate it");
+        }
+
+        Map<String, Integer> weights = parseMix(mix);
+        long start = System.nanoTime();
+        long measureFrom = start + warmupSeconds * 1_000_000_000L;
+        long deadline = measureFrom + durationSeconds * 1_000_000_000L;
+        log.info("Running load test: {} virtual users, {}s warmup + {}s, mix {}",
+                concurrency, warmupSeconds, durationSeconds, weights);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Map<String, Samples>>> results = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            VirtualUser user = new VirtualUser(baseUrl, tokens, recipeIds, weights, new SplittableRandom(i), measureFrom, deadline);
+            results.add(workers.submit(user::call));
+        }
+
+        Map<String, Samples> merged = new TreeMap<>();
+        try {
+            for (Future<Map<String, Samples>> result : results) {
+                result.get().forEach((endpoint, samples) -> merged.merge(endpoint, samples, Samples::merge));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Load test failed", e);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        long measuredMillis = durationSeconds * 1000L;
+        List<LoadTestReport.EndpointStats> endpoints = new ArrayList<>();
+        merged.forEach((endpoint, samples) -> endpoints.add(samples.toStats(endpoint, measuredMillis)));
+        return new LoadTestReport(concurrency, measuredMillis, endpoints);
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("loadtest.mix entries must look like operation=weight: " + entry);
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private final class VirtualUser {
+        private final String baseUrl;
+        private final List<String> tokens;
+        private final long[] recipeIds;
+        private final String[] operations;
+        private final int[] cumulativeWeights;
+        private final SplittableRandom random;
+        private final long measureFrom;
+        private final long deadline;
+
+        private final Map<String, Samples> samples = new TreeMap<>();
+        private String token;
+        private String feedCursor;
+        private int sessionLeft;
+
+        VirtualUser(String baseUrl, List<String> tokens, long[] recipeIds, Map<String, Integer> weights,
+                    SplittableRandom random, long measureFrom, long deadline) {
+            this.baseUrl = baseUrl;
+            this.tokens = tokens;
+            this.recipeIds = recipeIds;
+            this.random = random;
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+            this.operations = weights.keySet().toArray(new String[0]);
+            this.cumulativeWeights = new int[operations.length];
+            int total = 0;
+            for (int i = 0; i < operations.length; i++) {
+                total += weights.get(operations[i]);
+                cumulativeWeights[i] = total;
+            }
+        }
+
+        Map<String, Samples> call() {
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                if (sessionLeft-- <= 0) {
+                    token = tokens.get(random.nextInt(tokens.size()));
+                    feedCursor = null;
+                    sessionLeft = 10 + random.nextInt(21);
+                }
+                String operation = nextOperation();
+                switch (operation) {
+                    case "feed" -> {
+                        String cursor = feedCursor != null && random.nextBoolean()
+                                ? "&cursor=" + URLEncoder.encode(feedCursor, StandardCharsets.UTF_8) : "";
+                        String body = send("GET /api/recipes/feed/page", get("/api/recipes/feed/page?size=20" + cursor));
+                        feedCursor = body == null ? null : nextCursor(body);
+                    }
+                    case "discover" -> send("GET /api/recipes/discover", get("/api/recipes/discover?size=20"));
+                    case "search" -> send("GET /api/recipes/search", get("/api/recipes/search?keyword="
+                            + URLEncoder.encode(searchTerm(), StandardCharsets.UTF_8)));
+                    case "comments" -> send("GET /api/recipes/{id}/comments",
+                            get("/api/recipes/" + popularRecipe() + "/comments"));
+                    case "rate" -> send("POST /api/recipes/{id}/ratings", post("/api/recipes/" + popularRecipe() + "/ratings",
+                            "{\"score\":" + (1 + random.nextInt(5)) + "}"));
+                    case "comment" -> send("POST /api/recipes/{id}/comments", post("/api/recipes/" + popularRecipe() + "/comments",
+                            "{\"content\":\"" + SyntheticDataGenerator.COMMENTS[random.nextInt(SyntheticDataGenerator.COMMENTS.length)] + "\"}"));
+                    default -> throw new IllegalArgumentException("Unknown load-test operation: " + operation);
+                }
+            }
+            return samples;
+        }
+
+        private String nextOperation() {
+            int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int i = 0;
+            while (pick >= cumulativeWeights[i]) {
+                i++;
+            }
+            return operations[i];
+        }
+
+        // Cubic skew towards the first recipe ids, which the generator made the most rated/commented
+        private long popularRecipe() {
+            double u = random.nextDouble();
+            return recipeIds[(int) (recipeIds.length * u * u * u)];
+        }
+
+        private String searchTerm() {
+            return random.nextBoolean()
+                    ? SyntheticDataGenerator.DISHES[random.nextInt(SyntheticDataGenerator.DISHES.length)]
+                    : SyntheticDataGenerator.INGREDIENTS[random.nextInt(SyntheticDataGenerator.INGREDIENTS.length)];
+        }
+
+        private HttpRequest.Builder get(String path) {
+            return request(path).GET();
+        }
+
+        private HttpRequest.Builder post(String path, String json) {
+            return request(path).header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json));
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Authorization", "Bearer " + token);
+        }
+
+        // Returns the body of a 2xx response, or null on error
+        private String send(String endpoint, HttpRequest.Builder request) {
+            long begin = System.nanoTime();
+            String body = null;
+            try {
+                HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() / 100 == 2) {
+                    body = response.body();
+                }
+            } catch (IOException e) {
+                // counted as an error below
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long elapsed = System.nanoTime() - begin;
+            if (begin >= measureFrom) {
+                samples.computeIfAbsent(endpoint, k -> new Samples()).add(elapsed, body != null);
+            }
+            return body;
+        }
+
+        private String nextCursor(String body) {
+            try {
+                JsonNode cursor = objectMapper.readTree(body).get("nextCursor");
+                return cursor == null || cursor.isNull() ? null : cursor.asText();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+    // Raw latencies of one endpoint, recorded by a single thread and merged afterwards
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+
+        void add(long elapsedNanos, boolean ok) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = elapsedNanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        Samples merge(Samples other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.nanos[i], true);
+            }
+            errors += other.errors;
+            return this;
+        }
+
+        LoadTestReport.EndpointStats toStats(String endpoint, long measuredMillis) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return new LoadTestReport.EndpointStats(endpoint, count, errors, count * 1000.0 / measuredMillis,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), count == 0 ? 0 : sorted[count - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(rank, sorted.length - 1))] / 1e6;
+        }
+    }
+}
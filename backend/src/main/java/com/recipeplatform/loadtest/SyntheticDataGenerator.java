@@ -0,0 +1,217 @@
+package com.recipeplatform.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.Set;
+
+/**
+ * Bulk-loads a synthetic catalog through batched JDBC inserts.
+ *
+ * The first 10% of users are cooks. Recipe authorship and follow targets are drawn
+ * from a Zipf distribution over cooks, so follower counts follow a power law and the
+ * biggest cooks cross timeline.celebrity-threshold. Ratings and comments per recipe
+ * are Zipf-distributed too (a few recipes get most of the traffic); scores lean
+ * towards 4 and 5 stars. Rating aggregates and comment counts on recipes are written to match.
+ *
+ * Generated users are named loadtest_0..loadtest_{users-1}; the same seed always
+ * produces the same data. Run it inside a transaction.
+ */
+public class SyntheticDataGenerator {
+
+    public static final String USERNAME_PREFIX = "loadtest_";
+
+    private static final int BATCH = 1000;
+    private static final String[] ADJECTIVES = {
+            "smoky", "spicy", "creamy", "crispy", "lemony", "garlicky", "roasted", "quick", "rustic", "sticky"};
+    static final String[] DISHES = {
+            "curry", "risotto", "salad", "soup", "stew", "tacos", "pasta", "pie", "noodles", "pancakes"};
+    static final String[] INGREDIENTS = {
+            "rice", "onion", "garlic", "chickpeas", "spinach", "tomatoes", "chicken", "tofu", "lentils",
+            "coconut milk", "ginger", "potatoes", "mushrooms", "paneer", "eggs", "butter", "lemon", "basil"};
+    private static final String[] CATEGORIES = {"VEGETARIAN", "VEGAN", "NON_VEGETARIAN"};
+    static final String[] COMMENTS = {
+            "Made this tonight, the whole family loved it!", "Needed a bit more salt for me.",
+            "Can I swap the rice for quinoa?", "Perfect weeknight dinner.", "Added extra chili, amazing.",
+            "Took longer than the recipe says, but worth it."};
+    // Cumulative probability of 1..5 stars
+    private static final double[] SCORE_CDF = {0.05, 0.12, 0.25, 0.55, 1.0};
+
+    public record Settings(int users, int recipes, int followsPerUser,
+                           int ratingsPerRecipe, int commentsPerRecipe, long seed) {}
+
+    private final Settings settings;
+
+    public SyntheticDataGenerator(Settings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Inserts the dataset and returns the ids of the generated users, cooks first.
+     */
+    public long[] generate(JdbcTemplate jdbc, String passwordHash) {
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        LocalDateTime now = LocalDateTime.now();
+        int cooks = Math.max(2, settings.users() / 10);
+
+        Batch users = new Batch(jdbc, "INSERT INTO users (username, email, password, role, created_at, follower_count) "
+                + "VALUES (?, ?, ?, ?, ?, 0)");
+        for (int i = 0; i < settings.users(); i++) {
+            users.add(USERNAME_PREFIX + i, USERNAME_PREFIX + i + "@example.com", passwordHash,
+                    i < cooks ? "COOK" : "USER", Timestamp.valueOf(now.minusDays(400)));
+        }
+        users.flush();
+        long[] userIds = jdbc.queryForList("SELECT id FROM users WHERE username LIKE ? ORDER BY id",
+                Long.class, USERNAME_PREFIX.replace("_", "\\_") + "%").stream().mapToLong(Long::longValue).toArray();
+
+        Zipf cookPopularity = new Zipf(cooks);
+        Batch recipes = new Batch(jdbc, "INSERT INTO recipes (title, description, ingredients, instructions, "
+                + "category, user_id, created_at, updated_at, rating_count, rating_sum, comment_count) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0)");
+        for (int i = 0; i < settings.recipes(); i++) {
+            String dish = pick(random, ADJECTIVES) + " " + pick(random, INGREDIENTS) + " " + pick(random, DISHES);
+            String ingredients = String.join(", ", pick(random, INGREDIENTS), pick(random, INGREDIENTS),
+                    "2 cups " + pick(random, INGREDIENTS), "salt");
+            Timestamp createdAt = Timestamp.valueOf(now.minusSeconds(random.nextLong(365L * 24 * 3600)));
+            recipes.add(capitalize(dish) + " #" + i, "A synthetic " + dish + " recipe", ingredients,
+                    "Prep everything, then cook it.", pick(random, CATEGORIES),
+                    userIds[cookPopularity.next(random)], createdAt, createdAt);
+        }
+        recipes.flush();
+        long[] recipeIds = jdbc.queryForList("SELECT r.id FROM recipes r JOIN users u ON u.id = r.user_id "
+                        + "WHERE u.username LIKE ? ORDER BY r.id",
+                Long.class, USERNAME_PREFIX.replace("_", "\\_") + "%").stream().mapToLong(Long::longValue).toArray();
+
+        // Out-degree uniform around followsPerUser; in-degree follows the cook popularity power law
+        Batch follows = new Batch(jdbc, "INSERT INTO user_follows (follower_id, following_id, created_at) VALUES (?, ?, ?)");
+        Timestamp followedAt = Timestamp.valueOf(now.minusDays(30));
+        int maxFollows = Math.min(2 * settings.followsPerUser(), cooks - 1);
+        for (int i = 0; i < settings.users() && maxFollows > 0; i++) {
+            int count = Math.min(1 + random.nextInt(Math.max(1, 2 * settings.followsPerUser() - 1)), maxFollows);
+            Set<Integer> followed = new HashSet<>();
+            while (followed.size() < count) {
+                int cook = cookPopularity.next(random);
+                if (cook != i && followed.add(cook)) {
+                    follows.add(userIds[i], userIds[cook], followedAt);
+                }
+            }
+        }
+        follows.flush();
+
+        Zipf recipePopularity = new Zipf(recipeIds.length);
+        Batch ratings = new Batch(jdbc, "INSERT INTO ratings (score, created_at, user_id, recipe_id) VALUES (?, ?, ?, ?)");
+        Batch aggregates = new Batch(jdbc, "UPDATE recipes SET rating_count = ?, rating_sum = ?, comment_count = ? WHERE id = ?");
+        Batch comments = new Batch(jdbc, "INSERT INTO comments (content, created_at, user_id, recipe_id) VALUES (?, ?, ?, ?)");
+        for (int r = 0; r < recipeIds.length; r++) {
+            int ratingCount = Math.min(recipePopularity.expectedCount(r, settings.ratingsPerRecipe(), random), userIds.length);
+            long ratingSum = 0;
+            for (int user : distinct(random, userIds.length, ratingCount)) {
+                int score = score(random);
+                ratingSum += score;
+                ratings.add(score, Timestamp.valueOf(now.minusSeconds(random.nextLong(30L * 24 * 3600))),
+                        userIds[user], recipeIds[r]);
+            }
+            int commentCount = recipePopularity.expectedCount(r, settings.commentsPerRecipe(), random);
+            for (int c = 0; c < commentCount; c++) {
+                comments.add(pick(random, COMMENTS), Timestamp.valueOf(now.minusSeconds(random.nextLong(30L * 24 * 3600))),
+                        userIds[random.nextInt(userIds.length)], recipeIds[r]);
+            }
+            if (ratingCount > 0 || commentCount > 0) {
+                aggregates.add(ratingCount, ratingSum, commentCount, recipeIds[r]);
+            }
+        }
+        ratings.flush();
+        aggregates.flush();
+        comments.flush();
+        return userIds;
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static int score(SplittableRandom random) {
+        double p = random.nextDouble();
+        int stars = 0;
+        while (p > SCORE_CDF[stars]) {
+            stars++;
+        }
+        return stars + 1;
+    }
+
+    // k distinct values in [0, n) (Floyd's algorithm)
+    private static Set<Integer> distinct(SplittableRandom random, int n, int k) {
+        Set<Integer> chosen = new HashSet<>();
+        for (int j = n - k; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            chosen.add(chosen.contains(t) ? j : t);
+        }
+        return chosen;
+    }
+
+    // Draws 0..n-1 with P(k) proportional to 1 / (k + 1)
+    private static final class Zipf {
+        private final double[] cumulative;
+
+        Zipf(int n) {
+            cumulative = new double[n];
+            double total = 0;
+            for (int k = 0; k < n; k++) {
+                total += 1.0 / (k + 1);
+                cumulative[k] = total;
+            }
+            for (int k = 0; k < n; k++) {
+                cumulative[k] /= total;
+            }
+        }
+
+        int next(SplittableRandom random) {
+            int i = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(i >= 0 ? i : -i - 1, cumulative.length - 1);
+        }
+
+        // Share of (mean * n) events that falls on rank k, randomly rounded
+        int expectedCount(int k, int mean, SplittableRandom random) {
+            double share = cumulative[k] - (k == 0 ? 0 : cumulative[k - 1]);
+            double expected = share * mean * cumulative.length;
+            int whole = (int) expected;
+            return whole + (random.nextDouble() < expected - whole ? 1 : 0);
+        }
+    }
+
+    // Collects rows and sends them as one JDBC batch every BATCH rows
+    private static final class Batch {
+        private final JdbcTemplate jdbc;
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>(BATCH);
+
+        Batch(JdbcTemplate jdbc, String sql) {
+            this.jdbc = jdbc;
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == BATCH) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbc.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -8,11 +8,14 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments",
+       indexes = {@Index(name = "idx_comments_recipe_created_at_id", columnList = "recipe_id, created_at, id"),
+                  @Index(name = "idx_comments_user_created_at", columnList = "user_id, created_at")})
 public class Comment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_id")
+    @SequenceGenerator(name = "comments_id", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 1000)
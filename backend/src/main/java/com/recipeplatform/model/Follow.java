@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 public class Follow {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_follows_id")
+    @SequenceGenerator(name = "user_follows_id", sequenceName = "user_follows_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,114 @@
+package com.recipeplatform.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+/**
+ * An uploaded image or video, stored in the BlobStore under its SHA-256.
+ *
+ * The hash is the id: the same file uploaded twice is stored once, and a URL names exactly one
+ * content, which is what lets /api/media responses be cached for good. Images get resized
+ * variants (see MediaThumbnailer); variantStatus says whether they are there yet.
+ */
+@Entity
+@Table(name = "media_assets",
+       indexes = @Index(name = "idx_media_assets_variant_status", columnList = "variant_status"))
+// Second-level cached: every media request looks its asset up by hash
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "media")
+public class MediaAsset implements Persistable<String> {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private VariantStatus variantStatus;
+
+    // Images only, known once the variants are made
+    private Integer width;
+    private Integer height;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Assigned id: tells Spring Data to persist rather than merge a new asset
+    @Transient
+    private boolean isNew = true;
+
+    public enum Kind {
+        IMAGE, VIDEO
+    }
+
+    public enum VariantStatus {
+        NONE, PENDING, READY, FAILED
+    }
+
+    public MediaAsset() {}
+
+    public MediaAsset(String hash, String contentType, long size, Kind kind, User user) {
+        this.hash = hash;
+        this.contentType = contentType;
+        this.size = size;
+        this.kind = kind;
+        this.variantStatus = kind == Kind.IMAGE ? VariantStatus.PENDING : VariantStatus.NONE;
+        this.user = user;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @Override
+    public String getId() { return hash; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { this.isNew = false; }
+
+    // Getters and Setters
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+
+    public VariantStatus getVariantStatus() { return variantStatus; }
+    public void setVariantStatus(VariantStatus variantStatus) { this.variantStatus = variantStatus; }
+
+    public Integer getWidth() { return width; }
+    public void setWidth(Integer width) { this.width = width; }
+
+    public Integer getHeight() { return height; }
+    public void setHeight(Integer height) { this.height = height; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,76 @@
+package com.recipeplatform.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.LocalDateTime;
+
+/**
+ * One notification waiting to be mailed to one user. NotificationDispatcher sends everything
+ * pending for a recipient as a single digest email and deletes the rows once it is accepted;
+ * a failed send is retried at nextAttemptAt, and after notifications.max-attempts the rows are
+ * kept as FAILED.
+ */
+@Entity
+@Table(name = "notifications",
+       indexes = {
+           // Finding recipients with a digest due: WHERE status = 'PENDING' AND next_attempt_at <= now
+           @Index(name = "idx_notifications_due", columnList = "status, next_attempt_at"),
+           @Index(name = "idx_notifications_recipient", columnList = "recipient_id")
+       })
+public class Notification {
+
+    public enum Status { PENDING, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NotificationEvent.Type type;
+
+    @Column(name = "actor_id", nullable = false)
+    private Long actorId;
+
+    @Column(name = "recipe_id")
+    private Long recipeId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt; // When the event happened
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int attempts;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status;
+
+    public Notification() {}
+
+    // Getters
+
+    public Long getId() { return id; }
+
+    public Long getRecipientId() { return recipientId; }
+
+    public NotificationEvent.Type getType() { return type; }
+
+    public Long getActorId() { return actorId; }
+
+    public Long getRecipeId() { return recipeId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+
+    public int getAttempts() { return attempts; }
+
+    public Status getStatus() { return status; }
+}
@@ -0,0 +1,71 @@
+package com.recipeplatform.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Something that happened and may need to be mailed, written to the outbox in the same
+ * transaction as the change itself. One row per action, however many followers the cook has:
+ * NotificationDispatcher turns it into per-recipient Notifications in the background.
+ */
+@Entity
+@Table(name = "notification_outbox")
+public class NotificationEvent {
+
+    public enum Type {
+        RECIPE_POSTED, // actor posted recipeId; goes to the actor's followers
+        NEW_FOLLOWER   // actor started following recipientId
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Type type;
+
+    @Column(name = "actor_id", nullable = false)
+    private Long actorId;
+
+    @Column(name = "recipe_id")
+    private Long recipeId;
+
+    @Column(name = "recipient_id")
+    private Long recipientId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public NotificationEvent() {}
+
+    private NotificationEvent(Type type, Long actorId, Long recipeId, Long recipientId) {
+        this.type = type;
+        this.actorId = actorId;
+        this.recipeId = recipeId;
+        this.recipientId = recipientId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public static NotificationEvent recipePosted(Long authorId, Long recipeId) {
+        return new NotificationEvent(Type.RECIPE_POSTED, authorId, recipeId, null);
+    }
+
+    public static NotificationEvent newFollower(Long followerId, Long cookId) {
+        return new NotificationEvent(Type.NEW_FOLLOWER, followerId, null, cookId);
+    }
+
+    // Getters
+
+    public Long getId() { return id; }
+
+    public Type getType() { return type; }
+
+    public Long getActorId() { return actorId; }
+
+    public Long getRecipeId() { return recipeId; }
+
+    public Long getRecipientId() { return recipientId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
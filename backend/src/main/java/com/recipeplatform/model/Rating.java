@@ -12,11 +12,15 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.HashMap; // <-- IMPORT
 import java.util.Map;
 @Entity
-@Table(name = "ratings")
+// One vote per user per recipe; RatingIngestionQueue upserts against this constraint
+@Table(name = "ratings", uniqueConstraints = @UniqueConstraint(name = "uk_ratings_recipe_user",
+        columnNames = {"recipe_id", "user_id"}),
+        indexes = @Index(name = "idx_ratings_user_created_at", columnList = "user_id, created_at"))
 public class Rating {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ratings_id")
+    @SequenceGenerator(name = "ratings_id", sequenceName = "ratings_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
@@ -12,11 +15,21 @@ import java.util.Map; // <-- IMPORT THIS
 import java.util.HashMap;
 
 @Entity
-@Table(name = "recipes")
+@Table(name = "recipes",
+       indexes = {
+           // Keyset pagination for the Discover feed (ORDER BY created_at DESC, id DESC)
+           @Index(name = "idx_recipes_created_at_id", columnList = "created_at, id"),
+           // Per-cook listings (profile, admin, following feed) ordered by newest
+           @Index(name = "idx_recipes_user_created_at", columnList = "user_id, created_at")
+       })
+// Second-level cached (see EntityCacheService for what evicts it)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipes")
 public class Recipe {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipes_id")
+    @SequenceGenerator(name = "recipes_id", sequenceName = "recipes_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -44,6 +57,30 @@ public class Recipe {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Last change to anything on the detail page (an edit, a rating, a comment), the Last-Modified
+    // of GET /api/recipes/{id}. The counter updates set it in SQL together with the counts.
+    @JsonIgnore
+    private LocalDateTime changedAt;
+
+    // Denormalized rating aggregates, maintained by RatingService / RatingIngestionQueue on every write.
+    // Not updatable through the entity so a stale copy saved by updateRecipe can't overwrite them;
+    // they only change through RatingService.applyRatingDelta / RecipeRepository.rebuildRatingAggregates.
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long ratingCount;
+
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @JsonIgnore
+    private long ratingSum;
+
+    // Denormalized comment count, maintained by CommentService.adjustCommentCount
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long commentCount;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnore
@@ -106,6 +143,23 @@ public class Recipe {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+
+    public long getRatingCount() { return ratingCount; }
+    public void setRatingCount(long ratingCount) { this.ratingCount = ratingCount; }
+
+    public long getRatingSum() { return ratingSum; }
+    public void setRatingSum(long ratingSum) { this.ratingSum = ratingSum; }
+
+    public long getCommentCount() { return commentCount; }
+    public void setCommentCount(long commentCount) { this.commentCount = commentCount; }
+
+    @JsonProperty(value = "averageRating", access = JsonProperty.Access.READ_ONLY)
+    public double getAverageRating() {
+        return ratingCount == 0 ? 0.0 : (double) ratingSum / ratingCount;
+    }
+
     public User getUser() { return user; } // (keep the normal getter)
     public void setUser(User user) { this.user = user; }
 
@@ -0,0 +1,55 @@
+package com.recipeplatform.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One recipe in one user's materialized "Following" timeline.
+ * Written by TimelineService when a followed cook posts (fan-out on write).
+ * createdAt is the recipe's createdAt, so timeline pages line up with the recipe keyset cursor.
+ */
+@Entity
+@Table(name = "timeline_entries",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "recipe_id"}),
+       indexes = {
+           // Reading a timeline page: WHERE user_id = ? ORDER BY created_at DESC, recipe_id DESC
+           @Index(name = "idx_timeline_user_created", columnList = "user_id, created_at, recipe_id"),
+           @Index(name = "idx_timeline_recipe", columnList = "recipe_id"),
+           @Index(name = "idx_timeline_author", columnList = "author_id")
+       })
+public class TimelineEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId; // The timeline owner (the follower)
+
+    @Column(name = "recipe_id", nullable = false)
+    private Long recipeId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId; // The cook who posted the recipe
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public TimelineEntry() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getRecipeId() { return recipeId; }
+    public void setRecipeId(Long recipeId) { this.recipeId = recipeId; }
+
+    public Long getAuthorId() { return authorId; }
+    public void setAuthorId(Long authorId) { this.authorId = authorId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
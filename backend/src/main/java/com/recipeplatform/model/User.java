@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,10 +19,14 @@ import com.fasterxml.jackson.annotation.JsonProperty; // <-- IMPORT ADDED
 
 @Entity
 @Table(name = "users")
+// Second-level cached (see EntityCacheService for what evicts it)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id")
+    @SequenceGenerator(name = "users_id", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -41,6 +48,12 @@ public class User implements UserDetails {
 
     private LocalDateTime createdAt;
 
+    // Maintained by FollowService.adjustFollowerCount, never through the entity
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long followerCount;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
     private Set<Recipe> recipes;
@@ -87,6 +100,9 @@ public class User implements UserDetails {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public long getFollowerCount() { return followerCount; }
+    public void setFollowerCount(long followerCount) { this.followerCount = followerCount; }
+
     public Set<Recipe> getRecipes() { return recipes; }
     public void setRecipes(Set<Recipe> recipes) { this.recipes = recipes; }
 
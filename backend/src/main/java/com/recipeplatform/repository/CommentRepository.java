@@ -1,11 +1,20 @@
 package com.recipeplatform.repository;
 
+import com.recipeplatform.dto.CommentDto;
+import com.recipeplatform.dto.ProfileComment;
 import com.recipeplatform.model.Comment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -14,5 +23,41 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query("SELECT c FROM Comment c JOIN FETCH c.recipe WHERE c.user.id = :userId ORDER BY c.createdAt DESC")
     List<Comment> findByUserIdWithRecipe(Long userId);
 
-    List<Comment> findAllByRecipeId(Long recipeId);
+    // One page of a user's comments for the profile summary, newest first (idx_comments_user_created_at)
+    @Query("SELECT new com.recipeplatform.dto.ProfileComment(c.id, c.content, c.createdAt, r.id, r.title) " +
+           "FROM Comment c JOIN c.recipe r " +
+           "WHERE c.user.id = :userId " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ProfileComment> findProfilePage(@Param("userId") Long userId, Pageable pageable);
+
+    long countByUserId(Long userId);
+
+    // Loads the authors in the same query; serializing each comment used to load its user separately
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user JOIN FETCH c.recipe WHERE c.recipe.id = :recipeId ORDER BY c.createdAt, c.id")
+    List<Comment> findAllByRecipeId(@Param("recipeId") Long recipeId);
+
+    // --- Comment threads (keyset pagination, newest first, served by idx_comments_recipe_created_at_id) ---
+
+    @Query("SELECT new com.recipeplatform.dto.CommentDto(c.id, c.content, u.id, u.username, c.createdAt) " +
+           "FROM Comment c JOIN c.user u " +
+           "WHERE c.recipe.id = :recipeId " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentDto> findThreadPage(@Param("recipeId") Long recipeId, Pageable pageable);
+
+    @Query("SELECT new com.recipeplatform.dto.CommentDto(c.id, c.content, u.id, u.username, c.createdAt) " +
+           "FROM Comment c JOIN c.user u " +
+           "WHERE c.recipe.id = :recipeId " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentDto> findThreadPageAfter(@Param("recipeId") Long recipeId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    // Catalog export: [recipe id, author username, content, created at] in recipe id order,
+    // merged by RecipeExportService with RecipeRepository.streamAllForExport
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RecipeRepository.EXPORT_FETCH_SIZE))
+    @Query("SELECT c.recipe.id, u.username, c.content, c.createdAt FROM Comment c JOIN c.user u " +
+           "ORDER BY c.recipe.id, c.createdAt, c.id")
+    Stream<Object[]> streamAllForExport();
 }
@@ -3,6 +3,7 @@ package com.recipeplatform.repository;
 import com.recipeplatform.model.Follow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,5 +21,9 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
     // Get all the IDs of users that this user is following
     @Query("SELECT f.following.id FROM Follow f WHERE f.follower.id = :followerId")
     List<Long> findFollowingIdsByFollowerId(Long followerId);
+
+    // Followed cooks with more than :threshold followers; their recipes are pulled at read time
+    @Query("SELECT f.following.id FROM Follow f WHERE f.follower.id = :followerId AND f.following.followerCount > :threshold")
+    List<Long> findFollowedIdsWithFollowersOver(@Param("followerId") Long followerId, @Param("threshold") long threshold);
 }
 
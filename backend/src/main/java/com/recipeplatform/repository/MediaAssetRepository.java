@@ -0,0 +1,18 @@
+package com.recipeplatform.repository;
+
+import com.recipeplatform.model.MediaAsset;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MediaAssetRepository extends JpaRepository<MediaAsset, String> {
+
+    // With PENDING: images still waiting for their variants (the worker queue was full, or the app restarted)
+    @Query("SELECT m.hash FROM MediaAsset m WHERE m.variantStatus = :status ORDER BY m.createdAt")
+    List<String> findHashesByVariantStatus(@Param("status") MediaAsset.VariantStatus status, Pageable limit);
+}
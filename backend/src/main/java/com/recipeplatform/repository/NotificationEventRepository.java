@@ -0,0 +1,17 @@
+package com.recipeplatform.repository;
+
+import com.recipeplatform.model.NotificationEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NotificationEventRepository extends JpaRepository<NotificationEvent, Long> {
+
+    // The outbox is drained in the order the events were written
+    @Query("SELECT e FROM NotificationEvent e ORDER BY e.id")
+    List<NotificationEvent> findOldest(Pageable limit);
+}
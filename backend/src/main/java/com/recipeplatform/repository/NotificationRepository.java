@@ -0,0 +1,83 @@
+package com.recipeplatform.repository;
+
+import com.recipeplatform.dto.NotificationItem;
+import com.recipeplatform.model.Notification;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    // Keeps the native writes below from emptying the whole second-level cache (see TimelineRepository)
+    String WRITES_NOTIFICATIONS = "notifications";
+
+    // A new recipe: one pending notification for each of the author's followers, in one statement
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = WRITES_NOTIFICATIONS))
+    @Query(value = "INSERT INTO notifications (recipient_id, type, actor_id, recipe_id, created_at, next_attempt_at, attempts, status) " +
+                   "SELECT f.follower_id, 'RECIPE_POSTED', :authorId, :recipeId, :createdAt, :dueAt, 0, 'PENDING' " +
+                   "FROM user_follows f WHERE f.following_id = :authorId",
+           nativeQuery = true)
+    int addForFollowers(@Param("authorId") Long authorId,
+                        @Param("recipeId") Long recipeId,
+                        @Param("createdAt") LocalDateTime createdAt,
+                        @Param("dueAt") LocalDateTime dueAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = WRITES_NOTIFICATIONS))
+    @Query(value = "INSERT INTO notifications (recipient_id, type, actor_id, recipe_id, created_at, next_attempt_at, attempts, status) " +
+                   "VALUES (:recipientId, :type, :actorId, :recipeId, :createdAt, :dueAt, 0, 'PENDING')",
+           nativeQuery = true)
+    int add(@Param("recipientId") Long recipientId,
+            @Param("type") String type,
+            @Param("actorId") Long actorId,
+            @Param("recipeId") Long recipeId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("dueAt") LocalDateTime dueAt);
+
+    // Users with at least one pending notification whose digest is due
+    @Query("SELECT DISTINCT n.recipientId FROM Notification n " +
+           "WHERE n.status = :status AND n.nextAttemptAt <= :now")
+    List<Long> findDueRecipients(@Param("status") Notification.Status status,
+                                 @Param("now") LocalDateTime now,
+                                 Pageable limit);
+
+    // Everything pending for these recipients, due or not, so it all goes in one digest
+    @Query("SELECT new com.recipeplatform.dto.NotificationItem(n.id, n.recipientId, u.email, u.username, " +
+           "n.type, a.username, n.recipeId, r.title, n.attempts) " +
+           "FROM Notification n " +
+           "JOIN User u ON u.id = n.recipientId " +
+           "LEFT JOIN User a ON a.id = n.actorId " +
+           "LEFT JOIN Recipe r ON r.id = n.recipeId " +
+           "WHERE n.recipientId IN :recipientIds AND n.status = :status " +
+           "ORDER BY n.recipientId, n.createdAt, n.id")
+    List<NotificationItem> findItems(@Param("recipientIds") Collection<Long> recipientIds,
+                                     @Param("status") Notification.Status status);
+
+    // A failed send: tried again at :nextAttemptAt, or given up on once :maxAttempts is reached
+    @Modifying
+    @Query("UPDATE Notification n SET n.attempts = n.attempts + 1, n.nextAttemptAt = :nextAttemptAt, " +
+           "n.status = CASE WHEN n.attempts + 1 >= :maxAttempts THEN :failed ELSE n.status END " +
+           "WHERE n.id IN :ids")
+    int markAttemptFailed(@Param("ids") Collection<Long> ids,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("maxAttempts") int maxAttempts,
+                          @Param("failed") Notification.Status failed);
+
+    // Recipients that no longer exist
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.recipientId IN :recipientIds AND n.status = :status")
+    int deleteByRecipients(@Param("recipientIds") Collection<Long> recipientIds,
+                           @Param("status") Notification.Status status);
+}
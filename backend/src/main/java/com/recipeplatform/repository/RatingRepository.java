@@ -1,8 +1,13 @@
 package com.recipeplatform.repository;
 
+import com.recipeplatform.dto.ProfileRating;
 import com.recipeplatform.model.Rating;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List; // <-- IMPORT THIS
@@ -16,7 +21,24 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
 
     Optional<Rating> findByRecipeIdAndUserId(Long recipeId, Long userId);
 
+    // Same lookup, but row-locked so two concurrent score changes by the same user
+    // can't both compute their delta against the same old score
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Rating r WHERE r.recipe.id = :recipeId AND r.user.id = :userId")
+    Optional<Rating> findForUpdate(@Param("recipeId") Long recipeId, @Param("userId") Long userId);
+
     // --- ADD THIS METHOD ---
     @Query("SELECT r FROM Rating r JOIN FETCH r.recipe WHERE r.user.id = :userId ORDER BY r.createdAt DESC")
     List<Rating> findByUserIdWithRecipe(Long userId);
+
+    // One page of a user's ratings for the profile summary, newest first (idx_ratings_user_created_at)
+    @Query("SELECT new com.recipeplatform.dto.ProfileRating(ra.id, ra.score, ra.createdAt, r.id, r.title) " +
+           "FROM Rating ra JOIN ra.recipe r " +
+           "WHERE ra.user.id = :userId " +
+           "ORDER BY ra.createdAt DESC, ra.id DESC")
+    List<ProfileRating> findProfilePage(@Param("userId") Long userId, Pageable pageable);
+
+    // [number of ratings, average score] of one user
+    @Query("SELECT COUNT(r), COALESCE(AVG(r.score), 0) FROM Rating r WHERE r.user.id = :userId")
+    List<Object[]> findTotalsByUserId(@Param("userId") Long userId);
 }
@@ -3,17 +3,40 @@ package com.recipeplatform.repository;
 import com.recipeplatform.model.Recipe;
 import com.recipeplatform.model.Recipe.Category;
 import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.dto.RecipeSuggestSource;
+import com.recipeplatform.dto.RecipeVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
 
-    // Finds recipes by category (used in Home.js)
-    List<Recipe> findByCategory(Category category);
+    // Ids of a category's recipes (category listing in Home.js). Held in the query cache: Hibernate
+    // invalidates it whenever recipes are inserted, deleted or edited through the entity, and the
+    // recipes themselves are loaded from the entity cache, so the counters stay current.
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "recipe-ids-by-category")})
+    @Query("SELECT r.id FROM Recipe r WHERE r.category = :category ORDER BY r.id")
+    List<Long> findIdsByCategory(@Param("category") Category category);
+
+    // The cook of a recipe, whose "Following" feed validators move when one of their cards changes
+    @Query("SELECT r.user.id FROM Recipe r WHERE r.id = :recipeId")
+    Optional<Long> findAuthorId(@Param("recipeId") Long recipeId);
+
+    // Ids of a user's recipes, taken before the user (and by cascade the recipes) is deleted
+    @Query("SELECT r.id FROM Recipe r WHERE r.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
 
     // Finds recipes by title (used in Home.js search)
     List<Recipe> findByTitleContainingIgnoreCase(String title);
@@ -21,46 +44,200 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     // Finds recipes by user ID (used in original Profile.js)
     List<Recipe> findByUserId(Long userId);
 
-    // Finds recipes by keyword in title or description (used in Home.js search)
-    @Query("SELECT r FROM Recipe r WHERE LOWER(r.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(r.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Recipe> searchByKeyword(@Param("keyword") String keyword);
+    // Weighted full-text document of a recipe: title (A) > description (B) > ingredients (C).
+    // RecipeSearchService creates a GIN index on exactly this expression, so keep them identical.
+    String SEARCH_VECTOR =
+            "setweight(to_tsvector('english', coalesce(title, '')), 'A') || " +
+            "setweight(to_tsvector('english', coalesce(description, '')), 'B') || " +
+            "setweight(to_tsvector('english', coalesce(ingredients, '')), 'C')";
+
+    // Full-text search (PostgreSQL only), best match first. :query is a to_tsquery expression.
+    @Query(value = "SELECT id FROM recipes " +
+                   "WHERE (" + SEARCH_VECTOR + ") @@ to_tsquery('english', :query) " +
+                   "ORDER BY ts_rank_cd(" + SEARCH_VECTOR + ", to_tsquery('english', :query)) DESC, id DESC " +
+                   "LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<Long> searchIdsByTsQuery(@Param("query") String query,
+                                  @Param("limit") int limit,
+                                  @Param("offset") long offset);
+
+    // Substring search for databases without full-text support (e.g. H2 in tests)
+    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.id, r.user.username, r.ratingSum, r.ratingCount, r.createdAt) " +
+           "FROM Recipe r " +
+           "JOIN r.user " +
+           "WHERE LOWER(r.title) LIKE :pattern OR LOWER(r.description) LIKE :pattern OR LOWER(r.ingredients) LIKE :pattern " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeDto> searchCardsByPattern(@Param("pattern") String pattern, Pageable limit);
+
+    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.id, r.user.username, r.ratingSum, r.ratingCount, r.createdAt) " +
+           "FROM Recipe r " +
+           "JOIN r.user " +
+           "WHERE r.id IN :recipeIds")
+    List<RecipeDto> findRecipeCardsByIds(@Param("recipeIds") List<Long> recipeIds);
+
+    // ETag/Last-Modified of the detail page without loading the recipe; rows from before
+    // changedAt existed fall back to their last edit
+    @Query("SELECT new com.recipeplatform.dto.RecipeVersion(r.id, COALESCE(r.changedAt, r.updatedAt, r.createdAt), " +
+           "r.ratingCount, r.ratingSum, r.commentCount) " +
+           "FROM Recipe r WHERE r.id = :recipeId")
+    Optional<RecipeVersion> findVersion(@Param("recipeId") Long recipeId);
+
+    // Gets a single recipe card (used to re-rank one recipe in the top-rated leaderboard)
+    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.id, r.user.username, r.ratingSum, r.ratingCount, r.createdAt) " +
+           "FROM Recipe r " +
+           "JOIN r.user " +
+           "WHERE r.id = :recipeId")
+    Optional<RecipeDto> findRecipeCard(@Param("recipeId") Long recipeId);
 
-    // --- THIS QUERY IS UPDATED ---
-    // Gets top-rated recipes as DTOs (for "Reels" feed)
-    // It now returns List<RecipeDto> to include user/rating data safely
-    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.username, AVG(rat.score)) " +
+    // Top recipes by Bayesian average: (priorWeight * priorMean + sum) / (priorWeight + count).
+    // Only used to (re)build the in-memory TopRatedLeaderboard, never per request.
+    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.id, r.user.username, r.ratingSum, r.ratingCount, r.createdAt) " +
            "FROM Recipe r " +
            "JOIN r.user " +
-           "LEFT JOIN r.ratings rat ON rat.recipe.id = r.id " +
-           "GROUP BY r.id, r.user.username " +
-           "ORDER BY AVG(rat.score) DESC NULLS LAST") // Order by rating, put unrated last
-    List<RecipeDto> findTopRatedRecipeCards(); // Renamed from getTopRatedRecipes
+           "ORDER BY (:priorWeight * :priorMean + r.ratingSum) / (:priorWeight + r.ratingCount) DESC, r.id DESC")
+    List<RecipeDto> findTopByBayesianScore(@Param("priorWeight") double priorWeight,
+                                           @Param("priorMean") double priorMean,
+                                           Pageable limit);
 
-    // Gets all recipes with average ratings (for Home.js "Discover" feed)
-    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.username, AVG(rat.score)) " +
+    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.id, r.user.username, r.ratingSum, r.ratingCount, r.createdAt) " +
            "FROM Recipe r " +
            "JOIN r.user " +
-           "LEFT JOIN r.ratings rat ON rat.recipe.id = r.id " +
-           "GROUP BY r.id, r.user.username")
-    List<RecipeDto> findAllRecipeCardData();
+           "WHERE r.category = :category " +
+           "ORDER BY (:priorWeight * :priorMean + r.ratingSum) / (:priorWeight + r.ratingCount) DESC, r.id DESC")
+    List<RecipeDto> findTopByBayesianScoreInCategory(@Param("category") Category category,
+                                                     @Param("priorWeight") double priorWeight,
+                                                     @Param("priorMean") double priorMean,
+                                                     Pageable limit);
+
+    // Source rows for the typeahead index, read in id order one batch at a time
+    @Query("SELECT new com.recipeplatform.dto.RecipeSuggestSource(r.id, r.title, r.ingredients, r.user.username, r.ratingSum) " +
+           "FROM Recipe r " +
+           "JOIN r.user " +
+           "WHERE r.id > :afterId " +
+           "ORDER BY r.id")
+    List<RecipeSuggestSource> findSuggestSourcesAfter(@Param("afterId") Long afterId, Pageable limit);
+
+    @Query("SELECT new com.recipeplatform.dto.RecipeSuggestSource(r.id, r.title, r.ingredients, r.user.username, r.ratingSum) " +
+           "FROM Recipe r " +
+           "JOIN r.user " +
+           "WHERE r.id = :recipeId")
+    Optional<RecipeSuggestSource> findSuggestSource(@Param("recipeId") Long recipeId);
+
+    // Catalog-wide [sum of scores, number of ratings], the prior for the Bayesian average
+    @Query("SELECT COALESCE(SUM(r.ratingSum), 0), COALESCE(SUM(r.ratingCount), 0) FROM Recipe r")
+    List<Object[]> findGlobalRatingTotals();
+
+    // Cards per chunk (and per transaction) when card lists are streamed (RecipeCardStreamer)
+    String CARD_FETCH_SIZE = "500";
+
+    // Discover feed, first page, newest first (keyset pagination on createdAt/id)
+    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.id, r.user.username, r.ratingSum, r.ratingCount, r.createdAt) " +
+           "FROM Recipe r " +
+           "JOIN r.user " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeDto> findDiscoverPage(Pageable limit);
+
+    // Discover feed, every page after the first: seeks past the last (createdAt, id) the client saw
+    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.id, r.user.username, r.ratingSum, r.ratingCount, r.createdAt) " +
+           "FROM Recipe r " +
+           "JOIN r.user " +
+           "WHERE r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeDto> findDiscoverPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable limit);
 
     // Gets all recipes for one user with average ratings (for Profile.js & Admin)
-    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.username, AVG(rat.score)) " +
+    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.id, r.user.username, r.ratingSum, r.ratingCount, r.createdAt) " +
            "FROM Recipe r " +
            "JOIN r.user " +
-           "LEFT JOIN r.ratings rat ON rat.recipe.id = r.id " +
            "WHERE r.user.id = :userId " +
-           "GROUP BY r.id, r.user.username " +
            "ORDER BY r.createdAt DESC")
     List<RecipeDto> findMyRecipes(@Param("userId") Long userId);
 
-    // Gets all recipes from a list of followed user IDs (for Home.js "Following" feed)
-    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.username, AVG(rat.score)) " +
+    // Same as above, one page at a time (profile summary)
+    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.id, r.user.username, r.ratingSum, r.ratingCount, r.createdAt) " +
+           "FROM Recipe r " +
+           "JOIN r.user " +
+           "WHERE r.user.id = :userId " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeDto> findMyRecipes(@Param("userId") Long userId, Pageable pageable);
+
+    long countByUserId(Long userId);
+
+    // Newest recipes of a few cooks (the pull side of the "Following" timeline)
+    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.id, r.user.username, r.ratingSum, r.ratingCount, r.createdAt) " +
+           "FROM Recipe r " +
+           "JOIN r.user " +
+           "WHERE r.user.id IN :authorIds " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeDto> findAuthorsPage(@Param("authorIds") List<Long> authorIds, Pageable limit);
+
+    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.id, r.user.username, r.ratingSum, r.ratingCount, r.createdAt) " +
            "FROM Recipe r " +
            "JOIN r.user " +
-           "LEFT JOIN r.ratings rat ON rat.recipe.id = r.id " +
-           "WHERE r.user.id IN :followingIds " + // Filter by followed IDs
-           "GROUP BY r.id, r.user.username " +
-           "ORDER BY r.createdAt DESC") // Order by newest
-    List<RecipeDto> findRecipesByFollowing(@Param("followingIds") List<Long> followingIds);
-}
\ No newline at end of file
+           "WHERE r.user.id IN :authorIds " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeDto> findAuthorsPageAfter(@Param("authorIds") List<Long> authorIds,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable limit);
+
+    // --- Denormalized rating aggregates ---
+
+    // Per-vote deltas are applied with plain SQL by RatingService.applyRatingDelta: a JPQL update
+    // would make Hibernate drop every cached recipe, not just the one that changed.
+
+    @Query("SELECT CASE WHEN r.ratingCount > 0 THEN r.ratingSum * 1.0 / r.ratingCount ELSE 0.0 END FROM Recipe r WHERE r.id = :recipeId")
+    Double findAverageRatingById(@Param("recipeId") Long recipeId);
+
+    // Recipes whose stored aggregates no longer match the ratings table
+    // Each row: [recipeId, storedCount, storedSum, actualCount, actualSum]
+    @Query("SELECT r.id, r.ratingCount, r.ratingSum, COUNT(rat), COALESCE(SUM(rat.score), 0) " +
+           "FROM Recipe r " +
+           "LEFT JOIN r.ratings rat " +
+           "GROUP BY r.id, r.ratingCount, r.ratingSum " +
+           "HAVING r.ratingCount <> COUNT(rat) OR r.ratingSum <> COALESCE(SUM(rat.score), 0)")
+    List<Object[]> findRatingAggregateDrift();
+
+    // Rebuilds the aggregates of the given recipes from the ratings table
+    @Modifying
+    @Query("UPDATE Recipe r SET " +
+           "r.ratingCount = (SELECT COUNT(rat) FROM Rating rat WHERE rat.recipe.id = r.id), " +
+           "r.ratingSum = (SELECT COALESCE(SUM(rat.score), 0) FROM Rating rat WHERE rat.recipe.id = r.id) " +
+           "WHERE r.id IN :recipeIds")
+    int rebuildRatingAggregates(@Param("recipeIds") List<Long> recipeIds);
+
+    // --- Denormalized comment count ---
+
+    @Query("SELECT r.commentCount FROM Recipe r WHERE r.id = :recipeId")
+    Optional<Long> findCommentCountById(@Param("recipeId") Long recipeId);
+
+    // Per-comment changes go through CommentService.adjustCommentCount (plain SQL, see above)
+
+    // Takes a user's comments out of the counts before they are removed by cascade
+    @Modifying
+    @Query("UPDATE Recipe r SET r.commentCount = r.commentCount - " +
+           "(SELECT COUNT(c) FROM Comment c WHERE c.recipe.id = r.id AND c.user.id = :userId), " +
+           "r.changedAt = :now " +
+           "WHERE r.id IN (SELECT c.recipe.id FROM Comment c WHERE c.user.id = :userId)")
+    int subtractCommentsByUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // Recomputes every comment count from the comments table
+    @Modifying
+    @Query("UPDATE Recipe r SET r.commentCount = (SELECT COUNT(c) FROM Comment c WHERE c.recipe.id = r.id)")
+    int recountComments();
+
+    // --- Catalog export (RecipeExportService) ---
+
+    // Rows per round trip on the server-side cursor; the stream must be consumed inside a transaction
+    String EXPORT_FETCH_SIZE = "500";
+
+    // Bypasses the second-level cache so a full export doesn't push the hot recipes out of it
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")})
+    @Query("SELECT r FROM Recipe r JOIN FETCH r.user ORDER BY r.id")
+    Stream<Recipe> streamAllForExport();
+}
@@ -0,0 +1,131 @@
+package com.recipeplatform.repository;
+
+import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.model.TimelineEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TimelineRepository extends JpaRepository<TimelineEntry, Long> {
+
+    // Declared on the native writes below: without it Hibernate assumes a native statement may have
+    // changed any table and empties the whole second-level cache on every fan-out
+    String WRITES_TIMELINE = "timeline_entries";
+
+    // First page of a user's timeline, newest first
+    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.id, r.user.username, r.ratingSum, r.ratingCount, r.createdAt) " +
+           "FROM TimelineEntry t " +
+           "JOIN Recipe r ON r.id = t.recipeId " +
+           "JOIN r.user " +
+           "WHERE t.userId = :userId " +
+           "ORDER BY t.createdAt DESC, t.recipeId DESC")
+    List<RecipeDto> findTimelinePage(@Param("userId") Long userId, Pageable limit);
+
+    // Every later page: seeks past the last (createdAt, recipeId) the client saw
+    @Query("SELECT new com.recipeplatform.dto.RecipeDto(r.id, r.title, r.description, r.imageUrl, r.category, r.user.id, r.user.username, r.ratingSum, r.ratingCount, r.createdAt) " +
+           "FROM TimelineEntry t " +
+           "JOIN Recipe r ON r.id = t.recipeId " +
+           "JOIN r.user " +
+           "WHERE t.userId = :userId " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.recipeId < :recipeId)) " +
+           "ORDER BY t.createdAt DESC, t.recipeId DESC")
+    List<RecipeDto> findTimelinePageAfter(@Param("userId") Long userId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("recipeId") Long recipeId,
+                                          Pageable limit);
+
+    // Fan-out on write: one statement copies a new recipe into every follower's timeline
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = WRITES_TIMELINE))
+    @Query(value = "INSERT INTO timeline_entries (user_id, recipe_id, author_id, created_at) " +
+                   "SELECT f.follower_id, :recipeId, :authorId, :createdAt FROM user_follows f " +
+                   "WHERE f.following_id = :authorId " +
+                   "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int fanOut(@Param("recipeId") Long recipeId,
+               @Param("authorId") Long authorId,
+               @Param("createdAt") LocalDateTime createdAt);
+
+    // Bulk fan-out for imports: every non-celebrity author's new recipes into their followers' timelines
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = WRITES_TIMELINE))
+    @Query(value = "INSERT INTO timeline_entries (user_id, recipe_id, author_id, created_at) " +
+                   "SELECT f.follower_id, r.id, r.user_id, r.created_at FROM recipes r " +
+                   "JOIN users u ON u.id = r.user_id " +
+                   "JOIN user_follows f ON f.following_id = r.user_id " +
+                   "WHERE r.id IN (:recipeIds) AND u.follower_count <= :celebrityThreshold " +
+                   "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int fanOutAll(@Param("recipeIds") List<Long> recipeIds,
+                  @Param("celebrityThreshold") long celebrityThreshold);
+
+    // After a follow: copies the cook's most recent recipes into the follower's timeline
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = WRITES_TIMELINE))
+    @Query(value = "INSERT INTO timeline_entries (user_id, recipe_id, author_id, created_at) " +
+                   "SELECT :userId, r.id, r.user_id, r.created_at FROM recipes r " +
+                   "WHERE r.user_id = :authorId " +
+                   "ORDER BY r.created_at DESC, r.id DESC LIMIT :limit " +
+                   "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int backfill(@Param("userId") Long userId, @Param("authorId") Long authorId, @Param("limit") int limit);
+
+    // When a cook drops back under the pull threshold: pushes their recent recipes to all followers
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = WRITES_TIMELINE))
+    @Query(value = "INSERT INTO timeline_entries (user_id, recipe_id, author_id, created_at) " +
+                   "SELECT f.follower_id, r.id, r.user_id, r.created_at FROM user_follows f " +
+                   "JOIN (SELECT id, user_id, created_at FROM recipes WHERE user_id = :authorId " +
+                   "      ORDER BY created_at DESC, id DESC LIMIT :limit) r ON r.user_id = f.following_id " +
+                   "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int backfillFollowers(@Param("authorId") Long authorId, @Param("limit") int limit);
+
+    // Builds every timeline from scratch (only used when the table is empty), newest :maxEntries per user
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = WRITES_TIMELINE))
+    @Query(value = "INSERT INTO timeline_entries (user_id, recipe_id, author_id, created_at) " +
+                   "SELECT follower_id, id, user_id, created_at FROM (" +
+                   "SELECT f.follower_id, r.id, r.user_id, r.created_at, " +
+                   "ROW_NUMBER() OVER (PARTITION BY f.follower_id ORDER BY r.created_at DESC, r.id DESC) AS rn " +
+                   "FROM user_follows f " +
+                   "JOIN users u ON u.id = f.following_id " +
+                   "JOIN recipes r ON r.user_id = f.following_id " +
+                   "WHERE u.follower_count <= :threshold) ranked " +
+                   "WHERE rn <= :maxEntries " +
+                   "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int rebuildAll(@Param("threshold") long threshold, @Param("maxEntries") int maxEntries);
+
+    // Keeps only the newest :maxEntries rows of every timeline
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = WRITES_TIMELINE))
+    @Query(value = "DELETE FROM timeline_entries WHERE id IN (" +
+                   "SELECT id FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY created_at DESC, recipe_id DESC) AS rn " +
+                   "FROM timeline_entries) ranked WHERE rn > :maxEntries)",
+           nativeQuery = true)
+    int prune(@Param("maxEntries") int maxEntries);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.userId = :userId AND t.authorId = :authorId")
+    int deleteByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.recipeId = :recipeId")
+    int deleteByRecipeId(@Param("recipeId") Long recipeId);
+
+    // A deleted user's own timeline and their recipes in everyone else's
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.userId = :userId OR t.authorId = :userId")
+    int deleteByUser(@Param("userId") Long userId);
+}
@@ -2,6 +2,9 @@ package com.recipeplatform.repository;
 
 import com.recipeplatform.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -11,4 +14,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    @Query("SELECT u.followerCount FROM User u WHERE u.id = :userId")
+    long findFollowerCountById(@Param("userId") Long userId);
+
+    // Follow/unfollow increments are plain SQL in FollowService.adjustFollowerCount, so only the
+    // one cached user is evicted (a JPQL update drops the whole users region)
+
+    // Recomputes every follower count from user_follows
+    @Modifying
+    @Query("UPDATE User u SET u.followerCount = (SELECT COUNT(f) FROM Follow f WHERE f.following.id = u.id)")
+    int recountFollowers();
 }
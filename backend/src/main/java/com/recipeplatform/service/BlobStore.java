@@ -0,0 +1,43 @@
+package com.recipeplatform.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Where uploaded media bytes live. Keys are '/'-separated names chosen by MediaService.
+ *
+ * LocalBlobStore (media.store=local, the default) keeps them on disk; another implementation
+ * (an object store, say) only has to provide these operations.
+ */
+public interface BlobStore {
+
+    /**
+     * Copies content into the blob under key, replacing it if it exists, and returns the number
+     * of bytes written. Content is streamed, never held in memory as a whole; a reader never
+     * sees a partly written blob.
+     */
+    long write(String key, InputStream content) throws IOException;
+
+    /**
+     * Renames a blob, replacing any blob already at toKey.
+     */
+    void move(String fromKey, String toKey) throws IOException;
+
+    boolean exists(String key);
+
+    long size(String key) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * The blob as a file on this machine, when the store keeps one, so it can be sent with
+     * sendfile / FileChannel.transferTo instead of being copied through the heap.
+     */
+    default Optional<Path> localFile(String key) {
+        return Optional.empty();
+    }
+}
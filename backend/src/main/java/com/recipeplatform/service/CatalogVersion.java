@@ -0,0 +1,164 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.FeedCursor;
+import com.recipeplatform.model.Recipe;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validators behind the ETag and Last-Modified headers of the recipe card lists. Each list has
+ * its own, so a write only invalidates the lists its card is on and a client holding the current
+ * tag gets a 304 without the list being read:
+ *
+ * - Discover (GET /api/recipes, /discover pages) and category listings: a high-water mark of the
+ *   rows the response covers (count, latest changed_at, sums of the ids and counters), one
+ *   aggregate query instead of the list. Every write to a card moves changed_at or a counter.
+ * - Top-rated: the version of the board served (TopRatedLeaderboard), which moves only when the
+ *   published ranking changes, not on every vote.
+ * - "Following" feed: the viewer's followed cooks and, for each, the last change to one of their
+ *   cards (cookChanged), so votes on other cooks' recipes leave the feed's tag alone.
+ *
+ * Signed-in viewers get isFollowing on every card, so their tags also carry whom they follow.
+ * In-memory versions move once the write's transaction completes, so a tag is never handed out
+ * before the data it stands for is visible; the boot id stops tags from before a restart matching.
+ */
+@Service
+public class CatalogVersion {
+
+    /**
+     * The version of one list as one viewer sees it. lastModified is epoch millis.
+     */
+    public record Stamp(String tag, long lastModified) {
+
+        public String etag() {
+            return "W/\"" + tag + "\"";
+        }
+    }
+
+    private static final String ROWS_VERSION =
+            "SELECT COUNT(*), MAX(COALESCE(changed_at, updated_at, created_at)), COALESCE(SUM(id), 0), " +
+            "COALESCE(SUM(rating_count), 0), COALESCE(SUM(rating_sum), 0), COALESCE(SUM(comment_count), 0) FROM ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FollowGraph followGraph;
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    // Last change to one of a cook's cards, and to a user's follows (epoch millis, increasing per key)
+    private final Map<Long, Long> cookVersions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> followVersions = new ConcurrentHashMap<>();
+
+    // Last change that touches every timeline: pruning, imports, rebuilt aggregates, a deleted cook
+    private volatile long timelinesChanged = System.currentTimeMillis();
+
+    /**
+     * The newest rows of the Discover order, or the rows after a cursor.
+     */
+    public Stamp discover(FeedCursor after, int rows) {
+        if (after == null) {
+            return rows("d", ROWS_VERSION + "(SELECT * FROM recipes ORDER BY created_at DESC, id DESC LIMIT ?) w", rows);
+        }
+        Timestamp createdAt = Timestamp.valueOf(after.createdAt());
+        return rows("d", ROWS_VERSION + "(SELECT * FROM recipes WHERE created_at < ? OR (created_at = ? AND id < ?) " +
+                "ORDER BY created_at DESC, id DESC LIMIT ?) w", createdAt, createdAt, after.id(), rows);
+    }
+
+    public Stamp category(Recipe.Category category) {
+        return rows("c", ROWS_VERSION + "recipes WHERE category = ?", category.name());
+    }
+
+    /**
+     * An in-memory list such as a leaderboard; version must change whenever its content does.
+     */
+    public Stamp board(String list, long version, long lastModified) {
+        return new Stamp(bootId + "-" + list + "-" + version, lastModified);
+    }
+
+    // Also carries the followings, so it needs no forViewer()
+    public Stamp feed(long viewerId) {
+        long lastModified = Math.max(timelinesChanged, followVersions.getOrDefault(viewerId, 0L));
+        long hash = lastModified;
+        for (long cookId : followGraph.following(viewerId)) {
+            long version = cookVersions.getOrDefault(cookId, 0L);
+            hash = 31 * (31 * hash + cookId) + version;
+            lastModified = Math.max(lastModified, version);
+        }
+        return new Stamp(bootId + "-f" + viewerId + "-" + Long.toUnsignedString(hash, 36), lastModified);
+    }
+
+    /**
+     * A public list as a signed-in viewer sees it: its isFollowing flags depend on whom they follow.
+     */
+    public Stamp forViewer(Stamp stamp, Long viewerId) {
+        if (viewerId == null) {
+            return stamp;
+        }
+        int following = Arrays.hashCode(followGraph.following(viewerId));
+        return new Stamp(stamp.tag() + "-u" + viewerId + "-" + Integer.toUnsignedString(following, 36),
+                Math.max(stamp.lastModified(), followVersions.getOrDefault(viewerId, 0L)));
+    }
+
+    /**
+     * One of the cook's cards was created, edited, deleted or rated.
+     */
+    public void cookChanged(Long cookId) {
+        cooksChanged(List.of(cookId));
+    }
+
+    public void cooksChanged(Collection<Long> cookIds) {
+        List<Long> ids = List.copyOf(cookIds);
+        afterCompletion(() -> ids.forEach(id -> advance(cookVersions, id)));
+    }
+
+    // The user followed or unfollowed someone
+    public void followsChanged(Long userId) {
+        afterCompletion(() -> advance(followVersions, userId));
+    }
+
+    public void timelinesChanged() {
+        afterCompletion(() -> timelinesChanged = Math.max(timelinesChanged + 1, System.currentTimeMillis()));
+    }
+
+    private Stamp rows(String list, String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+            Timestamp latest = rs.getTimestamp(2);
+            long hash = rs.getLong(1);
+            for (int column = 3; column <= 6; column++) {
+                hash = 31 * hash + rs.getLong(column);
+            }
+            long lastModified = latest == null ? 0 : latest.getTime();
+            return new Stamp(list + "-" + Long.toString(lastModified, 36) + "-" + Long.toUnsignedString(hash, 36),
+                    lastModified);
+        }, args);
+    }
+
+    private static void advance(Map<Long, Long> versions, Long id) {
+        versions.merge(id, System.currentTimeMillis(), (old, now) -> Math.max(old + 1, now));
+    }
+
+    private void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,5 +1,9 @@
 package com.recipeplatform.service;
 
+import com.recipeplatform.dto.CommentDto;
+import com.recipeplatform.dto.CommentPage;
+import com.recipeplatform.dto.CursorPage;
+import com.recipeplatform.dto.FeedCursor;
 import com.recipeplatform.model.Comment;
 import com.recipeplatform.model.CommentRequest;
 import com.recipeplatform.model.Recipe;
@@ -7,9 +11,17 @@ import com.recipeplatform.model.User;
 import com.recipeplatform.repository.CommentRepository;
 import com.recipeplatform.repository.RecipeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.AccessDeniedException; // <-- IMPORT
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -21,10 +33,45 @@ public class CommentService {
     @Autowired
     private RecipeRepository recipeRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Value("${comments.max-page-size:100}")
+    private int maxPageSize;
+
     public List<Comment> getCommentsForRecipe(Long recipeId) {
         return commentRepository.findAllByRecipeId(recipeId);
     }
 
+    /**
+     * Gets one page of a recipe's comments, newest first, with the recipe's total comment count.
+     * Pass the nextCursor of the previous page to continue; null starts from the newest.
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public CommentPage getCommentPage(Long recipeId, String cursor, int size) {
+        long total = recipeRepository.findCommentCountById(recipeId)
+                .orElseThrow(() -> new RuntimeException("Recipe not found"));
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        // Fetch one extra row so we know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<CommentDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = commentRepository.findThreadPage(recipeId, limit);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            rows = commentRepository.findThreadPageAfter(recipeId, after.createdAt(), after.id(), limit);
+        }
+        CursorPage<CommentDto> page = CursorPage.fromRows(rows, pageSize,
+                last -> new FeedCursor(last.createdAt(), last.id()).encode());
+        return new CommentPage(page.getItems(), page.getNextCursor(), total);
+    }
+
+    @Transactional
     public Comment postComment(Long recipeId, User user, CommentRequest commentRequest) {
         Recipe recipe = recipeRepository.findById(recipeId)
                 .orElseThrow(() -> new RuntimeException("Recipe not found"));
@@ -34,13 +81,16 @@ public class CommentService {
         comment.setRecipe(recipe);
         comment.setUser(user);
         
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        adjustCommentCount(recipeId, 1);
+        return saved;
     }
 
     public List<Comment> getCommentsByUser(User user) {
         return commentRepository.findByUserIdWithRecipe(user.getId());
     }
 
+    @Transactional
     public void deleteComment(Long commentId, User user) {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
@@ -52,5 +102,26 @@ public class CommentService {
         }
 
         commentRepository.delete(comment);
+        adjustCommentCount(comment.getRecipe().getId(), -1);
+    }
+
+    // Applied in the same transaction as the comment insert/delete. Plain SQL so only this recipe
+    // is evicted from the second-level cache (a JPQL update would empty the whole recipes region).
+    private void adjustCommentCount(Long recipeId, long delta) {
+        jdbcTemplate.update("UPDATE recipes SET comment_count = comment_count + ?, changed_at = ? WHERE id = ?",
+                delta, Timestamp.valueOf(LocalDateTime.now()), recipeId);
+        entityCacheService.evictRecipe(recipeId);
+    }
+
+    // Called before the user (and by cascade their comments) is deleted
+    public void removeCommentsByUser(Long userId) {
+        recipeRepository.subtractCommentsByUser(userId, LocalDateTime.now());
+    }
+
+    // The counts are derived data; rebuild them for comments that predate the column
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void recountOnStartup() {
+        recipeRepository.recountComments();
     }
 }
@@ -0,0 +1,518 @@
+package com.recipeplatform.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * "Who to follow": cooks recommended to each user, computed in the background and kept in
+ * memory, so a request only reads a ready list.
+ *
+ * A cook scores on two signals, each scaled to 0..1 per user and weighted:
+ * - friends of friends: how many of the cooks the user follows follow them (FollowGraph);
+ * - co-rating: users who liked (rated recipes.like-min-score or more) the recipes the user
+ *   liked, weighted by how many they have in common, and what share of their own likes went
+ *   to this cook's recipes.
+ * Cooks the user already follows are left out.
+ *
+ * Every user is recomputed at startup and nightly, split into partitions on a fork/join pool.
+ * In between, users whose follows or ratings changed are recomputed every
+ * recommendations.incremental-interval-ms. The likes are read into primitive arrays for each
+ * run (one pass over ratings); scoring is the expensive part and is only done for those users.
+ * Second-degree effects (someone you follow follows a new cook) wait for the nightly run.
+ */
+@Service
+public class CookRecommender {
+
+    private static final Logger log = LoggerFactory.getLogger(CookRecommender.class);
+
+    private static final int FETCH_SIZE = 10_000;
+
+    // Users per fork/join leaf
+    private static final int PARTITION_SIZE = 256;
+
+    /**
+     * One recommended cook. followedBy is how many of the cooks the user follows follow them.
+     */
+    public record Pick(long cookId, double score, int followedBy) {}
+
+    @Autowired
+    private FollowGraph followGraph;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${recommendations.per-user:20}")
+    private int perUser;
+
+    @Value("${recommendations.like-min-score:4}")
+    private int likeMinScore;
+
+    // Recipes liked by more users than this say little about taste and are skipped for co-rating
+    @Value("${recommendations.max-likers-per-recipe:500}")
+    private int maxLikersPerRecipe;
+
+    @Value("${recommendations.friends-weight:1.0}")
+    private double friendsWeight;
+
+    @Value("${recommendations.co-rating-weight:1.0}")
+    private double coRatingWeight;
+
+    // 0: one thread per core
+    @Value("${recommendations.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    private volatile Map<Long, Pick[]> byUser = new ConcurrentHashMap<>();
+
+    // Most-followed cooks, for users with nothing to go on
+    private volatile Pick[] popular = new Pick[0];
+
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    // A full and an incremental run never overlap
+    private final ReentrantLock running = new ReentrantLock();
+
+    // Likes as arrays of dense indexes, read for each run
+    private static final class Index {
+        long[] cookIds;    // users who can be followed (COOK, ADMIN), ascending
+        long[] raterIds;   // users with at least one like, ascending
+        int[] likesStart;  // rater -> range of likes
+        int[] likes;       // recipe indexes
+        int[] likersStart; // recipe -> range of likers
+        int[] likers;      // rater indexes
+        int[] recipeAuthor; // recipe -> cook index, -1 if the author can't be followed
+    }
+
+    // Growable int[]
+    private static final class IntList {
+        int[] values = new int[1024];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * The user's recommendations, best first, minus cooks followed since they were computed.
+     */
+    public List<Pick> recommend(long userId, int limit) {
+        Pick[] picks = byUser.getOrDefault(userId, popular);
+        List<Pick> result = new ArrayList<>(Math.min(limit, picks.length));
+        for (Pick pick : picks) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (pick.cookId() != userId && !followGraph.isFollowing(userId, pick.cookId())) {
+                result.add(pick);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Queues the user for the next incremental run, once the current transaction has committed.
+     */
+    public void userChanged(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changed.add(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changed.add(userId);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recomputeOnStartup() {
+        recomputeAll();
+    }
+
+    @Scheduled(cron = "${recommendations.full-cron:0 0 4 * * *}")
+    public void recomputeNightly() {
+        recomputeAll();
+    }
+
+    public void recomputeAll() {
+        running.lock();
+        try {
+            long start = System.currentTimeMillis();
+            // Changes from here on are picked up by the next incremental run
+            changed.clear();
+            Index index = loadIndex();
+            long[] users = union(followGraph.followerIds(), index.raterIds);
+            Map<Long, Pick[]> fresh = new ConcurrentHashMap<>();
+            pool.invoke(new Partition(users, 0, users.length, index, fresh));
+            popular = mostFollowed(index);
+            byUser = fresh;
+            log.info("Computed cook recommendations for {} users ({} ms)", fresh.size(), System.currentTimeMillis() - start);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.incremental-interval-ms:300000}",
+               initialDelayString = "${recommendations.incremental-interval-ms:300000}")
+    public void recomputeChanged() {
+        if (changed.isEmpty()) {
+            return;
+        }
+        running.lock();
+        try {
+            long start = System.currentTimeMillis();
+            long[] users = drainChanged();
+            Index index = loadIndex();
+            Map<Long, Pick[]> updated = new ConcurrentHashMap<>();
+            pool.invoke(new Partition(users, 0, users.length, index, updated));
+            Map<Long, Pick[]> current = byUser;
+            for (long userId : users) {
+                Pick[] picks = updated.get(userId);
+                if (picks == null) {
+                    current.remove(userId);
+                } else {
+                    current.put(userId, picks);
+                }
+            }
+            log.debug("Recomputed cook recommendations for {} changed users ({} ms)", users.length,
+                    System.currentTimeMillis() - start);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private long[] drainChanged() {
+        long[] users = new long[changed.size()];
+        int n = 0;
+        for (Long userId : changed) {
+            if (changed.remove(userId)) {
+                if (n == users.length) {
+                    users = Arrays.copyOf(users, n * 2 + 1);
+                }
+                users[n++] = userId;
+            }
+        }
+        users = Arrays.copyOf(users, n);
+        Arrays.sort(users);
+        return users;
+    }
+
+    private Index loadIndex() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            Index index = new Index();
+            index.cookIds = readIds("SELECT id FROM users WHERE role <> 'USER' ORDER BY id");
+            index.raterIds = readIds("SELECT DISTINCT user_id FROM ratings WHERE score >= " + likeMinScore + " ORDER BY user_id");
+
+            // Recipe -> likers, in recipe order
+            IntList likersStart = new IntList();
+            IntList likers = new IntList();
+            IntList recipeAuthor = new IntList();
+            long[] lastRecipe = {-1};
+            stream("SELECT r.recipe_id, rc.user_id, r.user_id FROM ratings r JOIN recipes rc ON rc.id = r.recipe_id " +
+                   "WHERE r.score >= " + likeMinScore + " ORDER BY r.recipe_id", rs -> {
+                long recipeId = rs.getLong(1);
+                if (recipeId != lastRecipe[0]) {
+                    lastRecipe[0] = recipeId;
+                    likersStart.add(likers.size);
+                    int author = Arrays.binarySearch(index.cookIds, rs.getLong(2));
+                    recipeAuthor.add(author >= 0 ? author : -1);
+                }
+                likers.add(Arrays.binarySearch(index.raterIds, rs.getLong(3)));
+            });
+            likersStart.add(likers.size);
+            index.likersStart = likersStart.toArray();
+            index.likers = likers.toArray();
+            index.recipeAuthor = recipeAuthor.toArray();
+
+            // Rater -> likes: the same pairs the other way round (counting sort)
+            int raters = index.raterIds.length;
+            int[] start = new int[raters + 1];
+            for (int rater : index.likers) {
+                start[rater + 1]++;
+            }
+            for (int i = 0; i < raters; i++) {
+                start[i + 1] += start[i];
+            }
+            int[] next = Arrays.copyOf(start, raters);
+            int[] likes = new int[index.likers.length];
+            for (int recipe = 0; recipe < index.recipeAuthor.length; recipe++) {
+                for (int i = index.likersStart[recipe]; i < index.likersStart[recipe + 1]; i++) {
+                    likes[next[index.likers[i]]++] = recipe;
+                }
+            }
+            index.likesStart = start;
+            index.likes = likes;
+            return index;
+        });
+    }
+
+    private long[] readIds(String sql) {
+        long[][] ids = {new long[1024]};
+        int[] count = {0};
+        stream(sql, rs -> {
+            if (count[0] == ids[0].length) {
+                ids[0] = Arrays.copyOf(ids[0], count[0] * 2);
+            }
+            ids[0][count[0]++] = rs.getLong(1);
+        });
+        return Arrays.copyOf(ids[0], count[0]);
+    }
+
+    private void stream(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, handler);
+    }
+
+    // Both arrays ascending; the result too, without duplicates
+    private static long[] union(long[] a, long[] b) {
+        long[] out = new long[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            long next = j == b.length || (i < a.length && a[i] <= b[j]) ? a[i] : b[j];
+            if (i < a.length && a[i] == next) {
+                i++;
+            }
+            if (j < b.length && b[j] == next) {
+                j++;
+            }
+            out[n++] = next;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private Pick[] mostFollowed(Index index) {
+        Top top = new Top(perUser * 2);
+        for (long cookId : index.cookIds) {
+            int followers = followGraph.followerCount(cookId);
+            if (followers > 0) {
+                top.offer(cookId, followers, 0);
+            }
+        }
+        return top.picks();
+    }
+
+    // The perUser best candidates seen so far, best first (insertion into a short sorted array)
+    private static final class Top {
+        final long[] ids;
+        final double[] scores;
+        final int[] followedBy;
+        int size;
+
+        Top(int capacity) {
+            ids = new long[capacity];
+            scores = new double[capacity];
+            followedBy = new int[capacity];
+        }
+
+        void offer(long id, double score, int friends) {
+            if (size == ids.length && score <= scores[size - 1]) {
+                return;
+            }
+            int at = size == ids.length ? size - 1 : size++;
+            while (at > 0 && scores[at - 1] < score) {
+                ids[at] = ids[at - 1];
+                scores[at] = scores[at - 1];
+                followedBy[at] = followedBy[at - 1];
+                at--;
+            }
+            ids[at] = id;
+            scores[at] = score;
+            followedBy[at] = friends;
+        }
+
+        Pick[] picks() {
+            Pick[] picks = new Pick[size];
+            for (int i = 0; i < size; i++) {
+                picks[i] = new Pick(ids[i], scores[i], followedBy[i]);
+            }
+            return picks;
+        }
+    }
+
+    // Splits the users in halves until a part is small enough to score on one thread
+    @SuppressWarnings("serial")
+    private final class Partition extends RecursiveAction {
+
+        private final long[] users;
+        private final int from;
+        private final int to;
+        private final Index index;
+        private final Map<Long, Pick[]> out;
+
+        Partition(long[] users, int from, int to, Index index, Map<Long, Pick[]> out) {
+            this.users = users;
+            this.from = from;
+            this.to = to;
+            this.index = index;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARTITION_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Partition(users, from, middle, index, out),
+                          new Partition(users, middle, to, index, out));
+                return;
+            }
+            Scorer scorer = new Scorer(index);
+            for (int i = from; i < to; i++) {
+                Pick[] picks = scorer.rank(users[i]);
+                if (picks.length > 0) {
+                    out.put(users[i], picks);
+                }
+            }
+        }
+    }
+
+    // Scratch arrays for one partition, cleared after each user
+    private final class Scorer {
+
+        private final Index index;
+        private final int[] followedBy;  // per cook
+        private final double[] coRating; // per cook
+        private final IntList touchedCooks = new IntList();
+        private final int[] shared;      // per rater: likes in common with the user
+        private final IntList touchedRaters = new IntList();
+
+        Scorer(Index index) {
+            this.index = index;
+            this.followedBy = new int[index.cookIds.length];
+            this.coRating = new double[index.cookIds.length];
+            this.shared = new int[index.raterIds.length];
+        }
+
+        Pick[] rank(long userId) {
+            long[] following = followGraph.following(userId);
+            int maxFollowedBy = friendsOfFriends(userId, following);
+            double maxCoRating = coRating(userId);
+
+            Top top = new Top(perUser);
+            for (int k = 0; k < touchedCooks.size; k++) {
+                int cook = touchedCooks.values[k];
+                long cookId = index.cookIds[cook];
+                if (cookId != userId && Arrays.binarySearch(following, cookId) < 0) {
+                    double score = (maxFollowedBy > 0 ? friendsWeight * followedBy[cook] / maxFollowedBy : 0)
+                            + (maxCoRating > 0 ? coRatingWeight * coRating[cook] / maxCoRating : 0);
+                    top.offer(cookId, score, followedBy[cook]);
+                }
+                followedBy[cook] = 0;
+                coRating[cook] = 0;
+            }
+            touchedCooks.size = 0;
+            return top.picks();
+        }
+
+        private int friendsOfFriends(long userId, long[] following) {
+            int max = 0;
+            for (long followed : following) {
+                for (long candidate : followGraph.following(followed)) {
+                    int cook = Arrays.binarySearch(index.cookIds, candidate);
+                    if (cook >= 0 && candidate != userId) {
+                        touch(cook);
+                        max = Math.max(max, ++followedBy[cook]);
+                    }
+                }
+            }
+            return max;
+        }
+
+        private double coRating(long userId) {
+            int rater = Arrays.binarySearch(index.raterIds, userId);
+            if (rater < 0) {
+                return 0;
+            }
+            for (int i = index.likesStart[rater]; i < index.likesStart[rater + 1]; i++) {
+                int recipe = index.likes[i];
+                int from = index.likersStart[recipe];
+                int to = index.likersStart[recipe + 1];
+                if (to - from > maxLikersPerRecipe) {
+                    continue;
+                }
+                for (int j = from; j < to; j++) {
+                    int other = index.likers[j];
+                    if (other != rater && shared[other]++ == 0) {
+                        touchedRaters.add(other);
+                    }
+                }
+            }
+            double max = 0;
+            for (int k = 0; k < touchedRaters.size; k++) {
+                int other = touchedRaters.values[k];
+                int from = index.likesStart[other];
+                int to = index.likesStart[other + 1];
+                double weight = (double) shared[other] / (to - from);
+                for (int i = from; i < to; i++) {
+                    int cook = index.recipeAuthor[index.likes[i]];
+                    if (cook >= 0) {
+                        touch(cook);
+                        coRating[cook] += weight;
+                        max = Math.max(max, coRating[cook]);
+                    }
+                }
+                shared[other] = 0;
+            }
+            touchedRaters.size = 0;
+            return max;
+        }
+
+        private void touch(int cook) {
+            if (followedBy[cook] == 0 && coRating[cook] == 0) {
+                touchedCooks.add(cook);
+            }
+        }
+    }
+}
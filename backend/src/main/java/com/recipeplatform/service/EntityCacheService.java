@@ -0,0 +1,117 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.CacheRegionStats;
+import com.recipeplatform.model.Recipe;
+import com.recipeplatform.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Evictions and per-region statistics for the Hibernate second-level cache
+ * (Recipe and User entities, recipe ids per category).
+ *
+ * Writes through the entities keep the cache in step on their own, and JPQL bulk updates
+ * (recounts, aggregate rebuilds, a deleted user's comments) make Hibernate drop the whole region.
+ * Plain JDBC writes are invisible to Hibernate: the per-row counter updates, the rating queue
+ * and the load-test generator evict what they touched through this service. Evictions run once
+ * the surrounding transaction has finished, so a concurrent reader can't cache the old row again
+ * before the new one is committed.
+ */
+@Service
+public class EntityCacheService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public void evictRecipe(Long recipeId) {
+        afterTransaction(cache -> cache.evictEntityData(Recipe.class, recipeId));
+    }
+
+    public void evictRecipes(Collection<Long> recipeIds) {
+        List<Long> ids = List.copyOf(recipeIds);
+        afterTransaction(cache -> ids.forEach(id -> cache.evictEntityData(Recipe.class, id)));
+    }
+
+    public void evictUser(Long userId) {
+        afterTransaction(cache -> cache.evictEntityData(User.class, userId));
+    }
+
+    // Everything, including cached queries; for bulk loads that bypass Hibernate
+    public void evictAll() {
+        afterTransaction(Cache::evictAllRegions);
+    }
+
+    /**
+     * Hit/miss/put counts since startup for every region, with the entry count and
+     * capacity evictions reported by Caffeine.
+     */
+    public List<CacheRegionStats> getRegionStats() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        CacheManager cacheManager = sessionFactory.getCache().getRegionFactory() instanceof JCacheRegionFactory jcache
+                ? jcache.getCacheManager() : null;
+
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+        List<CacheRegionStats> result = new ArrayList<>(regions.length);
+        for (String region : regions) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) {
+                continue;
+            }
+            long hits = stats.getHitCount();
+            long misses = stats.getMissCount();
+            long size = -1;
+            long evictions = -1;
+            com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine = caffeine(cacheManager, region);
+            if (caffeine != null) {
+                size = caffeine.estimatedSize();
+                evictions = caffeine.stats().evictionCount();
+            }
+            result.add(new CacheRegionStats(region, hits, misses, stats.getPutCount(),
+                    hits + misses == 0 ? 0.0 : (double) hits / (hits + misses), size, evictions));
+        }
+        return result;
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine(CacheManager cacheManager, String region) {
+        if (cacheManager == null) {
+            return null;
+        }
+        javax.cache.Cache<Object, Object> cache = cacheManager.getCache(region);
+        try {
+            return cache == null ? null : cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+        } catch (IllegalArgumentException e) {
+            return null; // not a Caffeine-backed cache
+        }
+    }
+
+    private void afterTransaction(Consumer<Cache> eviction) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.accept(cache);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.accept(cache);
+            }
+        });
+    }
+}
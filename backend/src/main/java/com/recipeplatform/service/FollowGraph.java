@@ -0,0 +1,280 @@
+package com.recipeplatform.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of user_follows in both directions, so follow counts, follower lists,
+ * "do I follow these cooks" and mutual follows are answered without a query.
+ *
+ * Every user's followings and followers are a sorted long[] (8 bytes an edge, no boxing).
+ * A change replaces the arrays of the two users involved (copy-on-write), so readers never
+ * lock and never see an array half-changed. Loaded at startup by streaming the table, and kept
+ * in step by FollowService once a follow or unfollow has committed.
+ */
+@Service
+public class FollowGraph {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowGraph.class);
+
+    private static final long[] NONE = new long[0];
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private record Edge(long followerId, long followingId, boolean added) {}
+
+    private static final class Adjacency {
+        final Map<Long, long[]> following = new ConcurrentHashMap<>();
+        final Map<Long, long[]> followers = new ConcurrentHashMap<>();
+
+        // Idempotent, so replaying a change the load already saw does no harm
+        void apply(Edge edge) {
+            if (edge.added()) {
+                following.compute(edge.followerId(), (id, ids) -> withId(ids, edge.followingId()));
+                followers.compute(edge.followingId(), (id, ids) -> withId(ids, edge.followerId()));
+            } else {
+                following.computeIfPresent(edge.followerId(), (id, ids) -> withoutId(ids, edge.followingId()));
+                followers.computeIfPresent(edge.followingId(), (id, ids) -> withoutId(ids, edge.followerId()));
+            }
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile Adjacency adjacency = new Adjacency();
+
+    // Changes committed while load() runs, replayed onto the new copy; guarded by this
+    private List<Edge> journal;
+
+    // Before the listeners that read the graph (CookRecommender)
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void loadOnStartup() {
+        load();
+    }
+
+    /**
+     * Reads user_follows into a fresh copy and swaps it in.
+     */
+    public void load() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        Adjacency fresh = new Adjacency();
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                fill(fresh.following, "SELECT follower_id, following_id FROM user_follows ORDER BY follower_id, following_id");
+                fill(fresh.followers, "SELECT following_id, follower_id FROM user_follows ORDER BY following_id, follower_id");
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                journal = null;
+            }
+            throw e;
+        }
+        long edges;
+        synchronized (this) {
+            journal.forEach(fresh::apply);
+            journal = null;
+            adjacency = fresh;
+            edges = fresh.following.values().stream().mapToLong(ids -> ids.length).sum();
+        }
+        log.info("Loaded follow graph: {} follows by {} users of {} users ({} ms)", edges,
+                fresh.following.size(), fresh.followers.size(), System.currentTimeMillis() - start);
+    }
+
+    // Rows arrive grouped by the first column, the second one sorted within each group
+    private void fill(Map<Long, long[]> target, String sql) {
+        long[] current = {-1};
+        long[][] buffer = {new long[64]};
+        int[] count = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE); // a cursor instead of the whole table in the driver
+            return statement;
+        }, rs -> {
+            long key = rs.getLong(1);
+            if (key != current[0]) {
+                if (count[0] > 0) {
+                    target.put(current[0], Arrays.copyOf(buffer[0], count[0]));
+                }
+                current[0] = key;
+                count[0] = 0;
+            }
+            if (count[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], count[0] * 2);
+            }
+            buffer[0][count[0]++] = rs.getLong(2);
+        });
+        if (count[0] > 0) {
+            target.put(current[0], Arrays.copyOf(buffer[0], count[0]));
+        }
+    }
+
+    // Called in the follow's transaction; the graph changes once it has committed
+    public void onFollow(Long followerId, Long cookId) {
+        afterCommit(List.of(new Edge(followerId, cookId, true)));
+    }
+
+    public void onUnfollow(Long followerId, Long cookId) {
+        afterCommit(List.of(new Edge(followerId, cookId, false)));
+    }
+
+    public void onUserDeleted(Long userId) {
+        List<Edge> edges = new ArrayList<>();
+        for (long cookId : following(userId)) {
+            edges.add(new Edge(userId, cookId, false));
+        }
+        for (long followerId : followers(userId)) {
+            edges.add(new Edge(followerId, userId, false));
+        }
+        afterCommit(edges);
+    }
+
+    private void afterCommit(List<Edge> edges) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(edges);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(edges);
+            }
+        });
+    }
+
+    private synchronized void apply(List<Edge> edges) {
+        if (journal != null) {
+            journal.addAll(edges);
+        }
+        edges.forEach(adjacency::apply);
+    }
+
+    public int followerCount(long userId) {
+        return followers(userId).length;
+    }
+
+    public int followingCount(long userId) {
+        return following(userId).length;
+    }
+
+    // Ids in ascending order. The arrays are shared: callers must not modify them
+    public long[] followers(long userId) {
+        return adjacency.followers.getOrDefault(userId, NONE);
+    }
+
+    public long[] following(long userId) {
+        return adjacency.following.getOrDefault(userId, NONE);
+    }
+
+    /**
+     * Every user who follows someone, ascending.
+     */
+    public long[] followerIds() {
+        long[] ids = adjacency.following.keySet().stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    public boolean isFollowing(long followerId, long cookId) {
+        return Arrays.binarySearch(following(followerId), cookId) >= 0;
+    }
+
+    /**
+     * Bit i is set if followerId follows cookIds[i]: one binary search per cook, a feed page at a time.
+     */
+    public BitSet isFollowing(long followerId, long[] cookIds) {
+        long[] followed = following(followerId);
+        BitSet result = new BitSet(cookIds.length);
+        for (int i = 0; i < cookIds.length; i++) {
+            if (Arrays.binarySearch(followed, cookIds[i]) >= 0) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    public boolean isMutual(long userId, long otherId) {
+        return isFollowing(userId, otherId) && isFollowing(otherId, userId);
+    }
+
+    /**
+     * The users who follow userId and are followed back, ascending: a merge of the two sorted arrays.
+     */
+    public long[] mutuals(long userId) {
+        long[] out = following(userId);
+        long[] in = followers(userId);
+        long[] both = new long[Math.min(out.length, in.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < out.length && j < in.length; ) {
+            if (out[i] < in[j]) {
+                i++;
+            } else if (out[i] > in[j]) {
+                j++;
+            } else {
+                both[n++] = out[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(both, n);
+    }
+
+    private static long[] withId(long[] ids, long id) {
+        if (ids == null) {
+            return new long[]{id};
+        }
+        int at = Arrays.binarySearch(ids, id);
+        if (at >= 0) {
+            return ids;
+        }
+        int insert = -at - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, insert);
+        copy[insert] = id;
+        System.arraycopy(ids, insert, copy, insert + 1, ids.length - insert);
+        return copy;
+    }
+
+    // null (the entry is removed) once the last id is gone
+    private static long[] withoutId(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        System.arraycopy(ids, at + 1, copy, at, ids.length - at - 1);
+        return copy;
+    }
+}
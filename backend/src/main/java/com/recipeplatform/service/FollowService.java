@@ -1,13 +1,32 @@
 package com.recipeplatform.service;
 
+import com.recipeplatform.dto.CookRecommendation;
+import com.recipeplatform.dto.CursorPage;
+import com.recipeplatform.dto.FollowCounts;
+import com.recipeplatform.dto.FollowList;
+import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.dto.UserRef;
 import com.recipeplatform.model.Follow;
 import com.recipeplatform.model.User;
 import com.recipeplatform.repository.FollowRepository;
 import com.recipeplatform.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class FollowService {
@@ -18,6 +37,41 @@ public class FollowService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
+    @Autowired
+    private FollowGraph followGraph;
+
+    @Autowired
+    private CookRecommender cookRecommender;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${follows.max-page-size:100}")
+    private int maxPageSize;
+
+    // Cooks per batched status request (GET /api/follow/status?cookIds=...)
+    @Value("${follows.max-status-ids:200}")
+    private int maxStatusIds;
+
+    @Value("${recommendations.max-limit:50}")
+    private int maxRecommendations;
+
+    @Transactional
     public void followCook(User follower, Long cookToFollowId) {
         // 1. Check for self-follow
         if (follower.getId().equals(cookToFollowId)) {
@@ -43,8 +97,19 @@ public class FollowService {
         follow.setFollower(follower);
         follow.setFollowing(cookToFollow);
         followRepository.save(follow);
+
+        // 6. Keep the follower count and the follower's timeline in step
+        adjustFollowerCount(cookToFollowId, 1);
+        timelineService.onFollow(follower.getId(), cookToFollowId);
+        followGraph.onFollow(follower.getId(), cookToFollowId);
+        catalogVersion.followsChanged(follower.getId());
+        cookRecommender.userChanged(follower.getId());
+
+        // 7. Let the cook know (mailed later by NotificationDispatcher)
+        notificationOutbox.newFollower(follower.getId(), cookToFollowId);
     }
 
+    @Transactional
     public void unfollowCook(User follower, Long cookToUnfollowId) {
         // Find the follow relationship
         Follow follow = followRepository.findByFollowerIdAndFollowingId(follower.getId(), cookToUnfollowId)
@@ -52,10 +117,124 @@ public class FollowService {
         
         // Delete it
         followRepository.delete(follow);
+        long followerCount = adjustFollowerCount(cookToUnfollowId, -1);
+        timelineService.onUnfollow(follower.getId(), cookToUnfollowId, followerCount);
+        followGraph.onUnfollow(follower.getId(), cookToUnfollowId);
+        catalogVersion.followsChanged(follower.getId());
+        cookRecommender.userChanged(follower.getId());
     }
 
+    // Atomic increment/decrement in the caller's transaction. Plain SQL so only this user is evicted
+    // from the second-level cache (a JPQL update would empty the whole users region).
+    // Returns the count this change produced; the row lock orders concurrent changes.
+    private long adjustFollowerCount(Long userId, long delta) {
+        Long followerCount = jdbcTemplate.queryForObject(
+                "UPDATE users SET follower_count = follower_count + ? WHERE id = ? RETURNING follower_count",
+                Long.class, delta, userId);
+        entityCacheService.evictUser(userId);
+        return followerCount;
+    }
+
+    // Answered from the in-memory follow graph, which changes as soon as a follow has committed
     public Map<String, Boolean> checkFollowStatus(User follower, Long cookId) {
-        boolean isFollowing = followRepository.existsByFollowerIdAndFollowingId(follower.getId(), cookId);
-        return Map.of("isFollowing", isFollowing);
+        return Map.of("isFollowing", followGraph.isFollowing(follower.getId(), cookId));
+    }
+
+    /**
+     * Follow status for a page of cooks at once, in the order asked; from the follow graph, so no query.
+     */
+    public Map<Long, Boolean> checkFollowStatus(User follower, List<Long> cookIds) {
+        if (cookIds.size() > maxStatusIds) {
+            throw new IllegalArgumentException("At most " + maxStatusIds + " cook ids per request.");
+        }
+        long[] ids = cookIds.stream().mapToLong(Long::longValue).toArray();
+        BitSet following = followGraph.isFollowing(follower.getId(), ids);
+        Map<Long, Boolean> status = new LinkedHashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            status.put(ids[i], following.get(i));
+        }
+        return status;
+    }
+
+    /**
+     * The cards with isFollowing set for the viewer (copies); unchanged for anonymous viewers.
+     */
+    public List<RecipeDto> withFollowStatus(User viewer, List<RecipeDto> cards) {
+        if (viewer == null || cards.isEmpty()) {
+            return cards;
+        }
+        long[] authorIds = cards.stream().mapToLong(card -> card.getUserId() == null ? -1 : card.getUserId()).toArray();
+        BitSet following = followGraph.isFollowing(viewer.getId(), authorIds);
+        List<RecipeDto> flagged = new ArrayList<>(cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            flagged.add(cards.get(i).withFollowing(following.get(i)));
+        }
+        return flagged;
+    }
+
+    public CursorPage<RecipeDto> withFollowStatus(User viewer, CursorPage<RecipeDto> page) {
+        return viewer == null ? page : new CursorPage<>(withFollowStatus(viewer, page.getItems()), page.getNextCursor());
+    }
+
+    /**
+     * Cooks the user may want to follow, best first (see CookRecommender): read from the precomputed
+     * lists, with the names from the second-level cache where possible.
+     */
+    @Transactional(readOnly = true)
+    public List<CookRecommendation> getRecommendations(User user, int limit) {
+        List<CookRecommender.Pick> picks = cookRecommender.recommend(user.getId(), Math.max(1, Math.min(limit, maxRecommendations)));
+        if (picks.isEmpty()) {
+            return List.of();
+        }
+        List<User> cooks = entityManager.unwrap(Session.class)
+                .byMultipleIds(User.class)
+                .with(CacheMode.NORMAL)
+                .multiLoad(picks.stream().map(CookRecommender.Pick::cookId).toList());
+        List<CookRecommendation> result = new ArrayList<>(picks.size());
+        for (int i = 0; i < picks.size(); i++) {
+            User cook = cooks.get(i);
+            // Deleted, or no longer a cook, since the lists were computed
+            if (cook != null && cook.getRole() != User.Role.USER) {
+                CookRecommender.Pick pick = picks.get(i);
+                result.add(new CookRecommendation(cook.getId(), cook.getUsername(), pick.score(), pick.followedBy()));
+            }
+        }
+        return result;
+    }
+
+    public FollowCounts getCounts(Long userId) {
+        return new FollowCounts(followGraph.followerCount(userId), followGraph.followingCount(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public FollowList getFollowers(Long userId, int page, int size) {
+        return toList(followGraph.followers(userId), page, size);
+    }
+
+    @Transactional(readOnly = true)
+    public FollowList getFollowing(Long userId, int page, int size) {
+        return toList(followGraph.following(userId), page, size);
+    }
+
+    // Users that userId follows and who follow userId back
+    @Transactional(readOnly = true)
+    public FollowList getMutuals(Long userId, int page, int size) {
+        return toList(followGraph.mutuals(userId), page, size);
+    }
+
+    // Pages the ids in memory; only the page's names are read, from the second-level cache where possible
+    private FollowList toList(long[] ids, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        int pageNumber = Math.max(0, page);
+        int from = (int) Math.min((long) pageNumber * pageSize, ids.length);
+        List<Long> pageIds = Arrays.stream(ids, from, Math.min(from + pageSize, ids.length)).boxed().toList();
+        List<UserRef> users = pageIds.isEmpty() ? List.of() : entityManager.unwrap(Session.class)
+                .byMultipleIds(User.class)
+                .with(CacheMode.NORMAL)
+                .multiLoad(pageIds).stream()
+                .filter(Objects::nonNull) // deleted since
+                .map(user -> new UserRef(user.getId(), user.getUsername()))
+                .toList();
+        return new FollowList(users, pageNumber, pageSize, ids.length);
     }
 }
@@ -0,0 +1,227 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.model.MediaAsset;
+import com.recipeplatform.model.User;
+import com.recipeplatform.repository.MediaAssetRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Recipe images and videos (/api/media).
+ *
+ * An upload is streamed from the request into the BlobStore while its SHA-256 is computed, and
+ * then renamed to that hash; nothing holds the whole file in memory. A file that is already
+ * stored is not stored again. Images are queued for their resized variants (MediaThumbnailer),
+ * and until those exist a variant request gets the original.
+ */
+@Service
+public class MediaService {
+
+    /**
+     * Resized copies of an image, cropped to fill the box. JPEG.
+     */
+    public enum Variant {
+        THUMB(160, 160), CARD(600, 400);
+
+        final int width;
+        final int height;
+
+        Variant(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        public String pathName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Optional<Variant> fromPath(String name) {
+            return Arrays.stream(values()).filter(v -> v.pathName().equals(name)).findFirst();
+        }
+    }
+
+    /**
+     * A stored file to send: its key, headers, and whether its URL will always return these bytes.
+     */
+    public record Blob(String key, String contentType, long size, String etag, boolean immutable) {}
+
+    private static final Map<String, MediaAsset.Kind> ACCEPTED_TYPES = Map.of(
+            "image/jpeg", MediaAsset.Kind.IMAGE,
+            "image/png", MediaAsset.Kind.IMAGE,
+            "image/gif", MediaAsset.Kind.IMAGE,
+            "video/mp4", MediaAsset.Kind.VIDEO,
+            "video/webm", MediaAsset.Kind.VIDEO);
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private MediaAssetRepository mediaAssetRepository;
+
+    @Autowired
+    private MediaThumbnailer mediaThumbnailer;
+
+    @Value("${media.max-image-size:10MB}")
+    private DataSize maxImageSize;
+
+    @Value("${media.max-video-size:200MB}")
+    private DataSize maxVideoSize;
+
+    /**
+     * IMAGE or VIDEO for an accepted content type (parameters ignored), empty otherwise.
+     */
+    public Optional<MediaAsset.Kind> kindOf(String contentType) {
+        return contentType == null ? Optional.empty() : Optional.ofNullable(ACCEPTED_TYPES.get(baseType(contentType)));
+    }
+
+    public long maxSize(MediaAsset.Kind kind) {
+        return (kind == MediaAsset.Kind.IMAGE ? maxImageSize : maxVideoSize).toBytes();
+    }
+
+    /**
+     * Stores content read to its end. Throws MaxUploadSizeExceededException once more than
+     * maxSize bytes have been read; whatever was written so far is deleted.
+     */
+    public MediaAsset store(User user, String contentType, InputStream content) throws IOException {
+        MediaAsset.Kind kind = kindOf(contentType)
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported media type: " + contentType));
+        String staging = "incoming/" + UUID.randomUUID();
+        MessageDigest sha256 = sha256();
+        try {
+            long size = blobStore.write(staging,
+                    new DigestInputStream(new LimitedInputStream(content, maxSize(kind)), sha256));
+            String hash = HexFormat.of().formatHex(sha256.digest());
+
+            Optional<MediaAsset> existing = mediaAssetRepository.findById(hash);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            blobStore.move(staging, originalKey(hash));
+            MediaAsset asset;
+            try {
+                asset = mediaAssetRepository.save(new MediaAsset(hash, baseType(contentType), size, kind, user));
+            } catch (DataIntegrityViolationException e) {
+                // The same file was uploaded at the same time and saved first
+                return mediaAssetRepository.findById(hash).orElseThrow(() -> e);
+            }
+            if (kind == MediaAsset.Kind.IMAGE) {
+                mediaThumbnailer.submit(hash);
+            }
+            return asset;
+        } finally {
+            blobStore.delete(staging);
+        }
+    }
+
+    public Optional<MediaAsset> find(String hash) {
+        return hash != null && HASH.matcher(hash).matches() ? mediaAssetRepository.findById(hash) : Optional.empty();
+    }
+
+    public Optional<Blob> original(String hash) {
+        return find(hash).map(asset -> new Blob(originalKey(hash), asset.getContentType(), asset.getSize(), hash, true));
+    }
+
+    /**
+     * A variant of an image; the original, not to be cached for good, while the variant isn't there.
+     */
+    public Optional<Blob> variant(String hash, Variant variant) throws IOException {
+        Optional<MediaAsset> asset = find(hash);
+        if (asset.isEmpty() || asset.get().getKind() != MediaAsset.Kind.IMAGE) {
+            return Optional.empty();
+        }
+        if (asset.get().getVariantStatus() != MediaAsset.VariantStatus.READY) {
+            return Optional.of(new Blob(originalKey(hash), asset.get().getContentType(), asset.get().getSize(), hash, false));
+        }
+        String key = variantKey(hash, variant);
+        return Optional.of(new Blob(key, "image/jpeg", blobStore.size(key), hash + "-" + variant.pathName(), true));
+    }
+
+    public Optional<Path> localFile(Blob blob) {
+        return blobStore.localFile(blob.key());
+    }
+
+    public InputStream open(Blob blob) throws IOException {
+        return blobStore.open(blob.key());
+    }
+
+    // Spread over 256 directories by the first two hex digits
+    static String originalKey(String hash) {
+        return "originals/" + hash.substring(0, 2) + "/" + hash;
+    }
+
+    static String variantKey(String hash, Variant variant) {
+        return "variants/" + hash.substring(0, 2) + "/" + hash + "/" + variant.pathName() + ".jpg";
+    }
+
+    // "image/JPEG; charset=x" -> "image/jpeg"
+    private static String baseType(String contentType) {
+        return contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Fails the copy as soon as the upload goes over the limit, instead of after storing all of it
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counted(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                counted(n);
+            }
+            return n;
+        }
+
+        private void counted(int n) {
+            count += n;
+            if (count > limit) {
+                throw new MaxUploadSizeExceededException(limit);
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.model.MediaAsset;
+import com.recipeplatform.repository.MediaAssetRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Makes the resized variants of uploaded images (MediaService.Variant) on a small worker pool,
+ * off the upload request.
+ *
+ * Large photos are decoded subsampled, at about twice the biggest variant, so a 24-megapixel
+ * upload doesn't need a 100MB bitmap. Images that are still PENDING - the queue was full, or
+ * the app stopped first - are picked up again on startup and every media.thumbnails.retry-interval-ms.
+ */
+@Service
+public class MediaThumbnailer {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaThumbnailer.class);
+
+    private static final int MAX_VARIANT_WIDTH = 600;
+    private static final int MAX_VARIANT_HEIGHT = 400;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private MediaAssetRepository mediaAssetRepository;
+
+    @Value("${media.thumbnails.threads:2}")
+    private int threads;
+
+    @Value("${media.thumbnails.queue-capacity:1000}")
+    private int queueCapacity;
+
+    // Refuse to decode anything bigger (decompression bombs)
+    @Value("${media.thumbnails.max-pixels:50000000}")
+    private long maxPixels;
+
+    @Value("${media.thumbnails.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    // Queued or running, so a retry doesn't queue an image twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolTaskExecutor executor;
+
+    private record Decoded(BufferedImage image, int width, int height) {}
+
+    @PostConstruct
+    void start() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("media-thumbnails-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    public void submit(String hash) {
+        if (!inFlight.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(hash);
+                } finally {
+                    inFlight.remove(hash);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Stays PENDING until the next retry
+            inFlight.remove(hash);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void retryPendingOnStartup() {
+        retryPending();
+    }
+
+    @Scheduled(fixedDelayString = "${media.thumbnails.retry-interval-ms:60000}",
+               initialDelayString = "${media.thumbnails.retry-interval-ms:60000}")
+    public void retryPending() {
+        mediaAssetRepository.findHashesByVariantStatus(MediaAsset.VariantStatus.PENDING, PageRequest.of(0, queueCapacity))
+                .forEach(this::submit);
+    }
+
+    private void generate(String hash) {
+        MediaAsset asset = mediaAssetRepository.findById(hash).orElse(null);
+        if (asset == null || asset.getVariantStatus() != MediaAsset.VariantStatus.PENDING) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            Decoded source = decode(MediaService.originalKey(hash));
+            for (MediaService.Variant variant : MediaService.Variant.values()) {
+                byte[] jpeg = encodeJpeg(coverCrop(source.image(), variant.width, variant.height));
+                blobStore.write(MediaService.variantKey(hash, variant), new ByteArrayInputStream(jpeg));
+            }
+            asset.setWidth(source.width());
+            asset.setHeight(source.height());
+            asset.setVariantStatus(MediaAsset.VariantStatus.READY);
+            log.debug("Made variants of {} ({}x{}) in {} ms", hash, source.width(), source.height(),
+                    System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not make variants of media {}: {}", hash, e.toString());
+            asset.setVariantStatus(MediaAsset.VariantStatus.FAILED);
+        }
+        mediaAssetRepository.save(asset);
+    }
+
+    private Decoded decode(String key) throws IOException {
+        Optional<Path> file = blobStore.localFile(key);
+        try (InputStream raw = file.isPresent() ? InputStream.nullInputStream() : blobStore.open(key);
+             ImageInputStream in = file.isPresent()
+                     ? new FileImageInputStream(file.get().toFile())
+                     : new MemoryCacheImageInputStream(raw)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("Not a readable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image too large to resize: " + width + "x" + height);
+                }
+                int step = Math.max(1, Math.min(width / (2 * MAX_VARIANT_WIDTH), height / (2 * MAX_VARIANT_HEIGHT)));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return new Decoded(reader.read(0, param), width, height);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Scales the image to cover width x height and crops the overflow evenly from both sides
+    private BufferedImage coverCrop(BufferedImage source, int width, int height) {
+        double scale = Math.max((double) width / source.getWidth(), (double) height / source.getHeight());
+        int scaledWidth = (int) Math.ceil(source.getWidth() * scale);
+        int scaledHeight = (int) Math.ceil(source.getHeight() * scale);
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            // JPEG has no alpha: transparent pixels become white rather than black
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, (width - scaledWidth) / 2, (height - scaledHeight) / 2, scaledWidth, scaledHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = new MemoryCacheImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
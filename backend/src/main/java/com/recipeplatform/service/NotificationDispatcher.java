@@ -0,0 +1,257 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.NotificationItem;
+import com.recipeplatform.model.Notification;
+import com.recipeplatform.model.NotificationEvent;
+import com.recipeplatform.repository.NotificationEventRepository;
+import com.recipeplatform.repository.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the notification outbox (NotificationOutbox) in the background and mails it.
+ *
+ * Each run first expands outbox events into per-recipient Notifications - one INSERT ... SELECT
+ * per new recipe, however many followers - and then mails every recipient whose oldest pending
+ * notification is notifications.digest-delay-ms old: everything pending for them goes in one
+ * digest, and a batch of digests is handed to the MailSender at once (JavaMailSenderImpl sends
+ * them over one SMTP connection). A digest that can't be sent is retried with exponential
+ * backoff. Runs on one scheduler thread, so one dispatcher per application.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    // One recipient's digest: the message and the notification rows it covers
+    private record Digest(SimpleMailMessage message, List<Long> ids, int attempts) {}
+
+    @Autowired
+    private NotificationEventRepository notificationEventRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Boot's JavaMailSenderImpl from spring.mail.*; point spring.mail.host/port at a local fake SMTP
+    // server in development and tests, or declare another MailSender bean
+    @Autowired
+    private ObjectProvider<MailSender> mailSenders;
+
+    @Value("${notifications.enabled:true}")
+    private boolean enabled;
+
+    // Outbox events expanded per transaction, and recipients mailed per batch
+    @Value("${notifications.batch-size:100}")
+    private int batchSize;
+
+    // How long a notification waits for others to the same user to share its email
+    @Value("${notifications.digest-delay-ms:600000}")
+    private long digestDelayMs;
+
+    @Value("${notifications.max-attempts:8}")
+    private int maxAttempts;
+
+    // First retry after this long, doubling each attempt up to max-backoff-ms
+    @Value("${notifications.retry-backoff-ms:60000}")
+    private long retryBackoffMs;
+
+    @Value("${notifications.max-backoff-ms:21600000}")
+    private long maxBackoffMs;
+
+    @Value("${notifications.from:${spring.mail.username:no-reply@localhost}}")
+    private String from;
+
+    // Links in the emails point at the frontend
+    @Value("${notifications.site-url:http://localhost:3000}")
+    private String siteUrl;
+
+    private MailSender mailSender;
+
+    @PostConstruct
+    void start() {
+        mailSender = mailSenders.getIfAvailable();
+        if (enabled && mailSender == null) {
+            log.warn("No MailSender configured (spring.mail.host); notifications stay in the outbox");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.poll-interval-ms:5000}")
+    public void dispatch() {
+        if (!enabled || mailSender == null) {
+            return;
+        }
+        while (expandEvents() == batchSize) {
+            // More events waiting
+        }
+        while (deliverDue() == batchSize) {
+            // More digests due
+        }
+    }
+
+    /**
+     * Turns the oldest outbox events into pending notifications and deletes them, in one transaction.
+     */
+    int expandEvents() {
+        return transactionTemplate.execute(status -> {
+            List<NotificationEvent> events = notificationEventRepository.findOldest(PageRequest.of(0, batchSize));
+            for (NotificationEvent event : events) {
+                LocalDateTime dueAt = event.getCreatedAt().plusNanos(digestDelayMs * 1_000_000);
+                switch (event.getType()) {
+                    case RECIPE_POSTED -> notificationRepository.addForFollowers(
+                            event.getActorId(), event.getRecipeId(), event.getCreatedAt(), dueAt);
+                    case NEW_FOLLOWER -> notificationRepository.add(event.getRecipientId(), event.getType().name(),
+                            event.getActorId(), null, event.getCreatedAt(), dueAt);
+                }
+            }
+            notificationEventRepository.deleteAllInBatch(events);
+            return events.size();
+        });
+    }
+
+    /**
+     * Mails one batch of due digests; returns how many recipients were due.
+     */
+    int deliverDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> recipients = notificationRepository.findDueRecipients(
+                Notification.Status.PENDING, now, PageRequest.of(0, batchSize));
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<NotificationItem>> byRecipient = notificationRepository
+                .findItems(recipients, Notification.Status.PENDING).stream()
+                .collect(Collectors.groupingBy(NotificationItem::recipientId, LinkedHashMap::new, Collectors.toList()));
+
+        List<Long> deletedUsers = recipients.stream().filter(id -> !byRecipient.containsKey(id)).toList();
+        List<Long> done = new ArrayList<>();
+        List<Digest> digests = new ArrayList<>();
+        byRecipient.forEach((recipientId, items) -> {
+            List<Long> ids = items.stream().map(NotificationItem::id).toList();
+            SimpleMailMessage message = compose(items);
+            if (message == null) {
+                // Only about recipes or users deleted since: nothing left to say
+                done.addAll(ids);
+            } else {
+                int attempts = items.stream().mapToInt(NotificationItem::attempts).max().orElse(0);
+                digests.add(new Digest(message, ids, attempts));
+            }
+        });
+
+        // Sent outside any transaction: no connection is held while talking to the SMTP server
+        Set<SimpleMailMessage> failed = send(digests);
+
+        LocalDateTime retryFrom = LocalDateTime.now();
+        long givenUp = digests.stream()
+                .filter(digest -> failed.contains(digest.message()) && digest.attempts() + 1 >= maxAttempts)
+                .count();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!deletedUsers.isEmpty()) {
+                notificationRepository.deleteByRecipients(deletedUsers, Notification.Status.PENDING);
+            }
+            for (Digest digest : digests) {
+                if (failed.contains(digest.message())) {
+                    notificationRepository.markAttemptFailed(digest.ids(),
+                            retryFrom.plusNanos(backoffMs(digest.attempts() + 1) * 1_000_000),
+                            maxAttempts, Notification.Status.FAILED);
+                } else {
+                    done.addAll(digest.ids());
+                }
+            }
+            notificationRepository.deleteAllByIdInBatch(done);
+        });
+        if (givenUp > 0) {
+            log.warn("Gave up on notification digests to {} user(s) after {} attempts; their rows are kept as FAILED",
+                    givenUp, maxAttempts);
+        }
+        log.debug("Mailed {} of {} notification digests", digests.size() - failed.size(), digests.size());
+        return recipients.size();
+    }
+
+    // The messages that were not accepted
+    private Set<SimpleMailMessage> send(List<Digest> digests) {
+        Set<SimpleMailMessage> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (digests.isEmpty()) {
+            return failed;
+        }
+        SimpleMailMessage[] messages = digests.stream().map(Digest::message).toArray(SimpleMailMessage[]::new);
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // Keyed by the messages passed in; empty when the server couldn't be reached at all
+            e.getFailedMessages().keySet().stream()
+                    .filter(SimpleMailMessage.class::isInstance)
+                    .forEach(message -> failed.add((SimpleMailMessage) message));
+            if (failed.isEmpty()) {
+                Collections.addAll(failed, messages);
+            }
+            log.warn("Could not send {} of {} notification digests: {}", failed.size(), messages.length, e.getMessage());
+        } catch (MailException e) {
+            Collections.addAll(failed, messages);
+            log.warn("Could not send {} notification digests: {}", messages.length, e.getMessage());
+        }
+        return failed;
+    }
+
+    // null when none of the items can still be described
+    private SimpleMailMessage compose(List<NotificationItem> items) {
+        List<String> lines = items.stream().map(this::describe).filter(Objects::nonNull).toList();
+        if (lines.isEmpty()) {
+            return null;
+        }
+        NotificationItem first = items.get(0);
+        StringBuilder text = new StringBuilder("Hi ").append(first.recipientName()).append(",\n\n");
+        lines.forEach(line -> text.append("- ").append(line).append("\n"));
+        text.append("\nRecipe Platform\n");
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(first.recipientEmail());
+        message.setSubject(lines.size() == 1
+                ? lines.get(0).lines().findFirst().orElse("")
+                : lines.size() + " new updates on Recipe Platform");
+        message.setText(text.toString());
+        return message;
+    }
+
+    private String describe(NotificationItem item) {
+        if (item.actorName() == null) {
+            return null;
+        }
+        return switch (item.type()) {
+            case RECIPE_POSTED -> item.recipeTitle() == null ? null
+                    : item.actorName() + " posted a new recipe: " + item.recipeTitle()
+                      + "\n  " + siteUrl + "/recipe/" + item.recipeId();
+            case NEW_FOLLOWER -> item.actorName() + " started following you";
+        };
+    }
+
+    private long backoffMs(int attempt) {
+        return Math.min(retryBackoffMs << Math.min(attempt - 1, 20), maxBackoffMs);
+    }
+}
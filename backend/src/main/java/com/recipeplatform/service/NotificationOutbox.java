@@ -0,0 +1,30 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.model.NotificationEvent;
+import com.recipeplatform.model.Recipe;
+import com.recipeplatform.repository.NotificationEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records notifications to send as one outbox row in the caller's transaction, so the event is
+ * there exactly when the change it describes is committed. Nothing is mailed here: a request
+ * pays for one insert whatever the follower count, and NotificationDispatcher does the rest.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class NotificationOutbox {
+
+    @Autowired
+    private NotificationEventRepository notificationEventRepository;
+
+    public void recipePosted(Recipe recipe) {
+        notificationEventRepository.save(NotificationEvent.recipePosted(recipe.getUser().getId(), recipe.getId()));
+    }
+
+    public void newFollower(Long followerId, Long cookId) {
+        notificationEventRepository.save(NotificationEvent.newFollower(followerId, cookId));
+    }
+}
@@ -0,0 +1,172 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.config.SqlStatementRecorder;
+import com.recipeplatform.dto.ProfileComment;
+import com.recipeplatform.dto.ProfileRating;
+import com.recipeplatform.dto.ProfileSection;
+import com.recipeplatform.dto.ProfileSummary;
+import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.repository.CommentRepository;
+import com.recipeplatform.repository.RatingRepository;
+import com.recipeplatform.repository.RecipeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Builds the profile page (GET /api/profile/summary) in one request.
+ *
+ * The three sections - the user's recipes, comments and ratings - are independent queries, so they
+ * run at the same time on a small bounded pool, each in its own read-only transaction, and the
+ * page takes as long as the slowest of them instead of the sum. Every section has the same time
+ * budget (profile.summary.section-timeout-ms, also applied to its SQL as a statement timeout);
+ * a section that misses it comes back empty with timedOut set while the others are still shown.
+ * When the pool and its queue are full, the request thread loads the section itself.
+ */
+@Service
+public class ProfileSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileSummaryService.class);
+
+    // A user's ratings page plus the average over all of them
+    private record RatingsPart(ProfileSection<ProfileRating> section, Double average) {}
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private RatingIngestionQueue ratingIngestionQueue;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${profile.summary.threads:8}")
+    private int threads;
+
+    @Value("${profile.summary.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${profile.summary.section-timeout-ms:2000}")
+    private long sectionTimeoutMillis;
+
+    @Value("${profile.summary.max-page-size:50}")
+    private int maxPageSize;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    void start() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("profile-summary-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // Sections' SQL counts toward the request's statement count
+        executor.setTaskDecorator(SqlStatementRecorder::propagate);
+        executor.initialize();
+
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // Whole seconds; Spring passes what is left of it to each query as its JDBC timeout
+        readOnly.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sectionTimeoutMillis + 999)));
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * One page of each section; size is clamped to profile.summary.max-page-size.
+     */
+    public ProfileSummary getSummary(Long userId, int size, int recipesPage, int commentsPage, int ratingsPage) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        int recipesAt = Math.max(0, recipesPage);
+        int commentsAt = Math.max(0, commentsPage);
+        int ratingsAt = Math.max(0, ratingsPage);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+
+        Future<ProfileSection<RecipeDto>> recipes = submit(() -> {
+            List<RecipeDto> items = recipeRepository.findMyRecipes(userId, PageRequest.of(recipesAt, pageSize));
+            return new ProfileSection<>(items, recipesAt, pageSize, recipeRepository.countByUserId(userId), false);
+        });
+        Future<ProfileSection<ProfileComment>> comments = submit(() -> {
+            List<ProfileComment> items = commentRepository.findProfilePage(userId, PageRequest.of(commentsAt, pageSize));
+            return new ProfileSection<>(items, commentsAt, pageSize, commentRepository.countByUserId(userId), false);
+        });
+        Future<RatingsPart> ratings = submitAfterQueuedRatings(userId, () -> {
+            List<ProfileRating> items = ratingRepository.findProfilePage(userId, PageRequest.of(ratingsAt, pageSize));
+            Object[] totals = ratingRepository.findTotalsByUserId(userId).get(0);
+            ProfileSection<ProfileRating> section = new ProfileSection<>(items, ratingsAt, pageSize,
+                    ((Number) totals[0]).longValue(), false);
+            return new RatingsPart(section, ((Number) totals[1]).doubleValue());
+        });
+
+        RatingsPart ratingsPart = await(ratings, deadline, "ratings", userId,
+                new RatingsPart(ProfileSection.timedOut(ratingsAt, pageSize), null));
+        return new ProfileSummary(
+                await(recipes, deadline, "recipes", userId, ProfileSection.timedOut(recipesAt, pageSize)),
+                await(comments, deadline, "comments", userId, ProfileSection.timedOut(commentsAt, pageSize)),
+                ratingsPart.section(),
+                ratingsPart.average());
+    }
+
+    private <T> Future<T> submit(Supplier<T> section) {
+        return executor.submit(() -> readOnly.execute(status -> section.get()));
+    }
+
+    // Votes still in the ingestion queue would be missing otherwise. They are written before the
+    // section's read-only transaction starts: writing them needs a writable one
+    private <T> Future<T> submitAfterQueuedRatings(Long userId, Supplier<T> section) {
+        return executor.submit(() -> {
+            ratingIngestionQueue.awaitWritten(userId);
+            return readOnly.execute(status -> section.get());
+        });
+    }
+
+    private <T> T await(Future<T> section, long deadline, String name, Long userId, T onTimeout) {
+        try {
+            return section.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            section.cancel(true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            section.cancel(true);
+            return onTimeout;
+        } catch (ExecutionException e) {
+            // The statement timeout fired before the wait did
+            if (!(e.getCause() instanceof QueryTimeoutException || e.getCause() instanceof TransactionTimedOutException)) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+            }
+        }
+        log.warn("Profile section {} of user {} did not load within {} ms", name, userId, sectionTimeoutMillis);
+        return onTimeout;
+    }
+}
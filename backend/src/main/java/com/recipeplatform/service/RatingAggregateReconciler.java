@@ -0,0 +1,75 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.RatingDriftReport;
+import com.recipeplatform.repository.RecipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rebuilds Recipe.ratingCount / Recipe.ratingSum from the ratings table
+ * and reports any recipe whose stored aggregate had drifted.
+ */
+@Service
+@Transactional
+public class RatingAggregateReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingAggregateReconciler.class);
+
+    private static final int REPORTED_IDS = 50;
+    private static final int REBUILD_BATCH = 500;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    // Runs once on startup (also backfills recipes created before the aggregate columns existed)
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "${ratings.reconcile.cron:0 30 3 * * *}")
+    public void reconcileNightly() {
+        reconcile();
+    }
+
+    public RatingDriftReport reconcile() {
+        long start = System.currentTimeMillis();
+
+        List<Long> drifted = new ArrayList<>();
+        for (Object[] row : recipeRepository.findRatingAggregateDrift()) {
+            Long recipeId = (Long) row[0];
+            drifted.add(recipeId);
+            log.warn("Rating aggregate drift on recipe {}: stored count={} sum={}, actual count={} sum={}",
+                    recipeId, row[1], row[2], row[3], row[4]);
+        }
+
+        for (int i = 0; i < drifted.size(); i += REBUILD_BATCH) {
+            recipeRepository.rebuildRatingAggregates(drifted.subList(i, Math.min(i + REBUILD_BATCH, drifted.size())));
+        }
+
+        if (!drifted.isEmpty()) {
+            catalogVersion.timelinesChanged();
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        if (drifted.isEmpty()) {
+            log.info("Rating aggregates are consistent ({} ms)", elapsed);
+        } else {
+            log.warn("Rebuilt rating aggregates for {} recipe(s) ({} ms)", drifted.size(), elapsed);
+        }
+        return new RatingDriftReport(drifted.size(),
+                new ArrayList<>(drifted.subList(0, Math.min(REPORTED_IDS, drifted.size()))), elapsed);
+    }
+}
@@ -0,0 +1,313 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.PendingRating;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous write path for ratings (PostgreSQL only).
+ *
+ * Votes are held in a bounded map keyed by (recipe, user), so a user clicking through
+ * the stars several times before the next flush costs one row write. A scheduled flush
+ * writes them in JDBC batches with INSERT ... ON CONFLICT (recipe_id, user_id) DO UPDATE and
+ * applies the summed count/sum deltas per recipe in the same transaction. When the queue
+ * is full the submitting thread runs the flush itself instead of dropping votes.
+ *
+ * A vote stays in the map until the transaction that wrote it has committed, so
+ * awaitWritten() gives the submitting user read-your-write. Votes for recipes or users
+ * deleted in the meantime are skipped by the insert. Other databases keep the
+ * synchronous RatingService path.
+ */
+@Service
+public class RatingIngestionQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingIngestionQueue.class);
+
+    private static final String UNIQUE_INDEX = "uk_ratings_recipe_user";
+
+    private static final String UPSERT =
+            "INSERT INTO ratings (score, created_at, user_id, recipe_id) " +
+            "SELECT ?, ?, u.id, r.id FROM users u, recipes r WHERE u.id = ? AND r.id = ? " +
+            "ON CONFLICT (recipe_id, user_id) DO UPDATE SET score = EXCLUDED.score";
+
+    private static final Comparator<PendingRating> LOCK_ORDER = Comparator
+            .comparing(PendingRating::recipeId).thenComparing(PendingRating::userId);
+
+    private record Key(long recipeId, long userId) {}
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TopRatedLeaderboard topRatedLeaderboard;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private CookRecommender cookRecommender;
+
+    @Value("${ratings.ingest.enabled:true}")
+    private boolean configured;
+
+    @Value("${ratings.ingest.queue-capacity:10000}")
+    private int capacity;
+
+    @Value("${ratings.ingest.batch-size:500}")
+    private int batchSize;
+
+    private final Map<Key, PendingRating> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private volatile boolean enabled = false;
+
+    // Each batch commits on its own, also when a reader calls awaitWritten() inside its transaction
+    // (a read-only one would reject the SELECT ... FOR UPDATE)
+    private TransactionTemplate writeTemplate;
+
+    @PostConstruct
+    void start() {
+        writeTemplate = new TransactionTemplate(transactionManager);
+        writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Makes sure ratings has a unique (recipe_id, user_id) index for ON CONFLICT,
+     * removing duplicate votes left by the old read-then-insert path first.
+     * Runs before the other startup listeners so the aggregate reconcile sees the deduplicated table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void prepareSchema() {
+        if (!configured) {
+            log.info("Rating ingestion queue disabled; ratings are written synchronously");
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                log.info("Rating ingestion queue needs PostgreSQL; ratings are written synchronously");
+                return;
+            }
+        } catch (SQLException e) {
+            log.warn("Could not detect database type, ratings are written synchronously", e);
+            return;
+        }
+
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, UNIQUE_INDEX)) {
+            int removed = jdbcTemplate.update("DELETE FROM ratings a USING ratings b " +
+                    "WHERE a.recipe_id = b.recipe_id AND a.user_id = b.user_id AND a.id < b.id");
+            if (removed > 0) {
+                log.warn("Removed {} duplicate rating(s) before adding the unique index", removed);
+            }
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + UNIQUE_INDEX + " ON ratings (recipe_id, user_id)");
+        }
+        enabled = true;
+        log.info("Rating ingestion queue enabled (capacity {}, batch size {})", capacity, batchSize);
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * Queues a vote, replacing any vote by the same user for the same recipe that is still pending.
+     */
+    public PendingRating submit(Long recipeId, Long userId, int score) {
+        Key key = new Key(recipeId, userId);
+        if (pending.size() >= capacity && !pending.containsKey(key)) {
+            // Backpressure: the caller pays for the flush rather than losing the vote
+            flush();
+        }
+        PendingRating rating = new PendingRating(recipeId, userId, score, LocalDateTime.now());
+        pending.put(key, rating);
+        return rating;
+    }
+
+    /**
+     * Blocks until the user's vote on the recipe (if any is pending) has been committed.
+     */
+    public void awaitWritten(Long recipeId, Long userId) {
+        PendingRating rating = pending.get(new Key(recipeId, userId));
+        if (rating != null) {
+            flush(List.of(rating));
+        }
+    }
+
+    /**
+     * Blocks until every pending vote of the user has been committed. Only the user's own votes
+     * are written here; the rest of the queue is left to the scheduled flush.
+     */
+    public void awaitWritten(Long userId) {
+        List<PendingRating> own = pending.values().stream()
+                .filter(rating -> rating.userId().equals(userId))
+                .sorted(LOCK_ORDER)
+                .toList();
+        if (!own.isEmpty()) {
+            flush(own);
+        }
+    }
+
+    /**
+     * Drops a user's pending votes; called before the user is deleted.
+     */
+    public void discardUser(Long userId) {
+        pending.keySet().removeIf(key -> key.userId() == userId);
+    }
+
+    public int getPendingCount() { return pending.size(); }
+
+    @Scheduled(fixedDelayString = "${ratings.ingest.flush-interval-ms:200}",
+            initialDelayString = "${ratings.ingest.flush-interval-ms:200}")
+    public void flushScheduled() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Votes stay queued and are retried on the next flush
+            log.error("Rating flush failed, {} vote(s) still pending", pending.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (!pending.isEmpty()) {
+            log.info("Flushing {} pending rating(s) before shutdown", pending.size());
+            flush();
+        }
+    }
+
+    /**
+     * Writes everything that is pending, one transaction per batch. Returns the number of votes written.
+     */
+    public int flush() {
+        List<PendingRating> snapshot = new ArrayList<>(pending.values());
+        snapshot.sort(LOCK_ORDER);
+        return flush(snapshot);
+    }
+
+    // The lock is held per batch, so a reader writing its own votes waits for one batch at most,
+    // not for the whole backlog. Votes written by someone else meanwhile are skipped.
+    private int flush(List<PendingRating> votes) {
+        int written = 0;
+        for (int from = 0; from < votes.size(); from += batchSize) {
+            List<PendingRating> candidates = votes.subList(from, Math.min(from + batchSize, votes.size()));
+            Set<Long> changedRecipes;
+            List<PendingRating> batch;
+            flushLock.lock();
+            try {
+                batch = candidates.stream()
+                        .filter(rating -> pending.get(new Key(rating.recipeId(), rating.userId())) == rating)
+                        .toList();
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                changedRecipes = writeTemplate.execute(status -> write(batch));
+                for (PendingRating rating : batch) {
+                    // Only removes the exact vote written; a newer one submitted meanwhile stays queued
+                    pending.remove(new Key(rating.recipeId(), rating.userId()), rating);
+                }
+            } finally {
+                flushLock.unlock();
+            }
+            batch.forEach(rating -> cookRecommender.userChanged(rating.userId()));
+            changedRecipes.forEach(topRatedLeaderboard::refresh);
+            written += batch.size();
+        }
+        return written;
+    }
+
+    // Upserts one batch and returns the recipes whose aggregates changed
+    private Set<Long> write(List<PendingRating> batch) {
+        Map<Key, Integer> previous = lockExistingScores(batch);
+
+        int[] counts = jdbcTemplate.batchUpdate(UPSERT, batch.stream()
+                .map(r -> new Object[]{r.score(), Timestamp.valueOf(r.submittedAt()), r.userId(), r.recipeId()})
+                .toList());
+
+        Map<Long, long[]> deltas = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (counts[i] == 0) {
+                continue; // recipe or user no longer exists
+            }
+            PendingRating rating = batch.get(i);
+            Integer old = previous.get(new Key(rating.recipeId(), rating.userId()));
+            long[] delta = deltas.computeIfAbsent(rating.recipeId(), id -> new long[2]);
+            delta[0] += old == null ? 1 : 0;
+            delta[1] += rating.score() - (old == null ? 0 : old);
+        }
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+        if (deltas.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate("UPDATE recipes SET rating_count = rating_count + ?, rating_sum = rating_sum + ?, changed_at = ? " +
+                        "WHERE id = ?",
+                deltas.entrySet().stream()
+                        .map(e -> new Object[]{e.getValue()[0], e.getValue()[1], now, e.getKey()})
+                        .toList());
+        // The cached copies of these recipes and their cooks' feeds carry the old aggregates; both move on once this batch commits
+        entityCacheService.evictRecipes(deltas.keySet());
+        catalogVersion.cooksChanged(findAuthors(deltas.keySet()));
+        return deltas.keySet();
+    }
+
+    private List<Long> findAuthors(Set<Long> recipeIds) {
+        String placeholders = String.join(", ", Collections.nCopies(recipeIds.size(), "?"));
+        return jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM recipes WHERE id IN (" + placeholders + ")",
+                Long.class, recipeIds.toArray());
+    }
+
+    // Current scores of the batch's (recipe, user) pairs, row-locked so the deltas can't race another writer
+    private Map<Key, Integer> lockExistingScores(List<PendingRating> batch) {
+        StringBuilder sql = new StringBuilder("SELECT recipe_id, user_id, score FROM ratings WHERE (recipe_id, user_id) IN (");
+        List<Object> args = new ArrayList<>(batch.size() * 2);
+        for (PendingRating rating : batch) {
+            sql.append(args.isEmpty() ? "(?, ?)" : ", (?, ?)");
+            args.add(rating.recipeId());
+            args.add(rating.userId());
+        }
+        sql.append(") FOR UPDATE");
+
+        Map<Key, Integer> scores = new HashMap<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            scores.put(new Key(rs.getLong(1), rs.getLong(2)), rs.getInt(3));
+        }, args.toArray());
+        return scores;
+    }
+}
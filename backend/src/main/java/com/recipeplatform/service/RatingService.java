@@ -1,5 +1,6 @@
 package com.recipeplatform.service;
 
+import com.recipeplatform.dto.PendingRating;
 import com.recipeplatform.model.Rating;
 import com.recipeplatform.model.RatingRequest;
 import com.recipeplatform.model.Recipe;
@@ -7,8 +8,12 @@ import com.recipeplatform.model.User;
 import com.recipeplatform.repository.RatingRepository;
 import com.recipeplatform.repository.RecipeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Optional;
 import java.util.List;
@@ -22,14 +27,53 @@ public class RatingService {
     @Autowired
     private RecipeRepository recipeRepository;
 
+    @Autowired
+    private TopRatedLeaderboard topRatedLeaderboard;
+
+    @Autowired
+    private RatingIngestionQueue ratingIngestionQueue;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private CookRecommender cookRecommender;
+
+    public boolean isQueued() {
+        return ratingIngestionQueue.isEnabled();
+    }
+
+    /**
+     * Accepts a rating for asynchronous writing (see RatingIngestionQueue).
+     * The recipe is not looked up; votes for a missing recipe are dropped when the queue flushes.
+     */
+    public PendingRating queueRating(Long recipeId, User user, RatingRequest ratingRequest) {
+        validateScore(ratingRequest);
+        return ratingIngestionQueue.submit(recipeId, user.getId(), ratingRequest.score());
+    }
+
+    // Synchronous path, used when the ingestion queue is not available
+    @Transactional
     public Rating submitRating(Long recipeId, User user, RatingRequest ratingRequest) {
+        validateScore(ratingRequest);
+
         // Find if the user already rated this recipe
-        Optional<Rating> existingRating = ratingRepository.findByRecipeIdAndUserId(recipeId, user.getId());
+        Optional<Rating> existingRating = ratingRepository.findForUpdate(recipeId, user.getId());
         
         Rating rating;
+        long countDelta;
+        long sumDelta;
         if (existingRating.isPresent()) {
-            // Update existing rating
+            // Update existing rating: only the score difference goes into the aggregate
             rating = existingRating.get();
+            countDelta = 0;
+            sumDelta = ratingRequest.score() - rating.getScore();
         } else {
             // Create a new rating
             rating = new Rating();
@@ -37,14 +81,52 @@ public class RatingService {
                     .orElseThrow(() -> new RuntimeException("Recipe not found"));
             rating.setRecipe(recipe);
             rating.setUser(user);
+            countDelta = 1;
+            sumDelta = ratingRequest.score();
         }
         
         rating.setScore(ratingRequest.score());
-        return ratingRepository.save(rating);
+        Rating saved = ratingRepository.save(rating);
+        if (countDelta != 0 || sumDelta != 0) {
+            applyRatingDelta(recipeId, countDelta, sumDelta);
+            topRatedLeaderboard.refresh(recipeId);
+        }
+        cookRecommender.userChanged(user.getId());
+        return saved;
     }
 
-    public Map<String, Double> getAverageRating(Long recipeId) {
-        Double avg = ratingRepository.getAverageRatingByRecipeId(recipeId);
+    // Applied in the same transaction as the rating insert/update/removal.
+    // A single UPDATE ... SET x = x + delta is atomic in the database, so concurrent raters can't lose updates.
+    // Plain SQL so only this recipe is evicted from the second-level cache, not the whole region.
+    private void applyRatingDelta(Long recipeId, long countDelta, long sumDelta) {
+        jdbcTemplate.update("UPDATE recipes SET rating_count = rating_count + ?, rating_sum = rating_sum + ?, changed_at = ? " +
+                "WHERE id = ?", countDelta, sumDelta, Timestamp.valueOf(LocalDateTime.now()), recipeId);
+        entityCacheService.evictRecipe(recipeId);
+        recipeRepository.findAuthorId(recipeId).ifPresent(catalogVersion::cookChanged);
+    }
+
+    /**
+     * Takes a user's ratings out of the recipe aggregates and re-ranks those recipes once this commits.
+     * Called before the user (and, by cascade, their ratings) is deleted.
+     */
+    @Transactional
+    public void removeRatingsByUser(Long userId) {
+        ratingIngestionQueue.discardUser(userId);
+        for (Rating rating : ratingRepository.findByUserIdWithRecipe(userId)) {
+            applyRatingDelta(rating.getRecipe().getId(), -1, -rating.getScore());
+            topRatedLeaderboard.refresh(rating.getRecipe().getId());
+        }
+    }
+
+    /**
+     * Average score of a recipe. When the reader is the user who just voted,
+     * their queued vote is written first so they see it counted.
+     */
+    public Map<String, Double> getAverageRating(Long recipeId, User reader) {
+        if (reader != null) {
+            ratingIngestionQueue.awaitWritten(recipeId, reader.getId());
+        }
+        Double avg = recipeRepository.findAverageRatingById(recipeId);
         // Handle cases where there are no ratings yet
         if (avg == null) {
             avg = 0.0;
@@ -53,6 +135,13 @@ public class RatingService {
     }
 
     public List<Rating> getRatingsByUser(User user) {
+        ratingIngestionQueue.awaitWritten(user.getId());
         return ratingRepository.findByUserIdWithRecipe(user.getId());
     }
-}
\ No newline at end of file
+
+    private void validateScore(RatingRequest ratingRequest) {
+        if (ratingRequest.score() == null || ratingRequest.score() < 1 || ratingRequest.score() > 5) {
+            throw new RuntimeException("Score must be between 1 and 5");
+        }
+    }
+}
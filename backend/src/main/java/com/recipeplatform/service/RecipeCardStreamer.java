@@ -0,0 +1,153 @@
+package com.recipeplatform.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.model.Recipe;
+import com.recipeplatform.repository.RecipeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Writes the large card lists (GET /api/recipes, GET /api/recipes/category/{category}) as a JSON
+ * array while they are being read, instead of building the whole list and serializing it at once.
+ *
+ * The list is read CARD_FETCH_SIZE cards at a time, each chunk in its own short read-only
+ * transaction, and the chunk is written and flushed once that transaction has ended. So the first
+ * bytes reach the client after the first chunk, memory use doesn't grow with the list, and a slow
+ * client never holds a pooled connection while its socket drains. The body is the same JSON the
+ * buffered endpoints returned. Once the first bytes are out the status can't change any more:
+ * an error halfway aborts the response.
+ */
+@Service
+public class RecipeCardStreamer {
+
+    private static final int CHUNK_SIZE = Integer.parseInt(RecipeRepository.CARD_FETCH_SIZE);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${recipes.discover.legacy-limit:500}")
+    private int legacyLimit;
+
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    void start() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    /**
+     * The newest recipes as RecipeDto cards, capped at recipes.discover.legacy-limit,
+     * paged by (createdAt, id) like the Discover feed. out is flushed, not closed.
+     */
+    public void writeNewest(OutputStream out) throws IOException {
+        ObjectWriter writer = writerFor(RecipeDto.class);
+        writeArray(out, generator -> {
+            RecipeDto last = null;
+            for (int remaining = legacyLimit; remaining > 0; ) {
+                PageRequest limit = PageRequest.of(0, Math.min(CHUNK_SIZE, remaining));
+                RecipeDto after = last;
+                List<RecipeDto> chunk = readOnly.execute(status -> after == null
+                        ? recipeRepository.findDiscoverPage(limit)
+                        : recipeRepository.findDiscoverPageAfter(after.getCreatedAt(), after.getId(), limit));
+                for (RecipeDto card : chunk) {
+                    writer.writeValue(generator, card);
+                }
+                generator.flush();
+                if (chunk.size() < limit.getPageSize()) {
+                    break;
+                }
+                last = chunk.get(chunk.size() - 1);
+                remaining -= chunk.size();
+            }
+        });
+    }
+
+    /**
+     * Every recipe of a category. The ids come from the query cache; the recipes are loaded
+     * (from the second-level cache where possible) one chunk per transaction and serialized into
+     * a token buffer before it ends, so lazy associations resolve while the session is open.
+     */
+    public void writeCategory(Recipe.Category category, OutputStream out) throws IOException {
+        ObjectWriter writer = writerFor(Recipe.class);
+        writeArray(out, generator -> {
+            List<Long> ids = readOnly.execute(status -> recipeRepository.findIdsByCategory(category));
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                List<Long> chunkIds = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+                TokenBuffer chunk = readOnly.execute(status -> {
+                    TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+                    List<Recipe> recipes = entityManager.unwrap(Session.class).byMultipleIds(Recipe.class)
+                            .with(CacheMode.NORMAL)
+                            .multiLoad(chunkIds);
+                    for (Recipe recipe : recipes) {
+                        if (recipe != null) { // deleted since the ids were read
+                            write(writer, buffer, recipe);
+                        }
+                    }
+                    return buffer;
+                });
+                chunk.serialize(generator);
+                generator.flush();
+            }
+        });
+    }
+
+    // Cards go into the generator's buffer; it is flushed once per chunk, not after every card
+    private ObjectWriter writerFor(Class<?> type) {
+        return objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private static void write(ObjectWriter writer, JsonGenerator generator, Object value) {
+        try {
+            writer.writeValue(generator, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface Body {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    // No transaction is open here: each chunk is read in its own and written after it has ended
+    private void writeArray(OutputStream out, Body body) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.writeStartArray();
+            body.write(generator);
+            generator.writeEndArray();
+            generator.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
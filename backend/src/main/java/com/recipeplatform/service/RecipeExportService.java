@@ -0,0 +1,125 @@
+package com.recipeplatform.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.recipeplatform.dto.RecipeExportLine;
+import com.recipeplatform.model.Recipe;
+import com.recipeplatform.repository.CommentRepository;
+import com.recipeplatform.repository.RecipeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog as NDJSON, one RecipeExportLine per recipe.
+ *
+ * Recipes and comments are read through two server-side cursors in the same read-only
+ * transaction, both in recipe id order, and merged as they stream; the persistence context
+ * is cleared every fetch, so memory use doesn't grow with the catalog.
+ */
+@Service
+public class RecipeExportService {
+
+    private static final int FETCH_SIZE = Integer.parseInt(RecipeRepository.EXPORT_FETCH_SIZE);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransferTracker transferTracker;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Streams every recipe to out and returns the number written. out is flushed, not closed.
+     */
+    public long export(OutputStream out) throws IOException {
+        TransferTracker.Transfer transfer = transferTracker.start("export");
+        ObjectWriter writer = objectMapper.writerFor(RecipeExportLine.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            Long written = readOnly.execute(status -> {
+                try (Stream<Recipe> recipes = recipeRepository.streamAllForExport();
+                     Stream<Object[]> comments = commentRepository.streamAllForExport()) {
+                    return writeAll(recipes.iterator(), comments.iterator(), writer, generator, transfer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+            transfer.done();
+            return written;
+        } catch (UncheckedIOException e) {
+            transfer.failed(e.getCause());
+            throw e.getCause();
+        } catch (RuntimeException | IOException e) {
+            transfer.failed(e);
+            throw e;
+        }
+    }
+
+    private long writeAll(Iterator<Recipe> recipes, Iterator<Object[]> comments, ObjectWriter writer,
+                          JsonGenerator generator, TransferTracker.Transfer transfer) throws IOException {
+        Object[] comment = comments.hasNext() ? comments.next() : null;
+        long written = 0;
+        while (recipes.hasNext()) {
+            Recipe recipe = recipes.next();
+            List<RecipeExportLine.CommentLine> lines = new ArrayList<>();
+            // Comments of recipes deleted mid-export (id lower than this one) are skipped
+            while (comment != null && (Long) comment[0] <= recipe.getId()) {
+                if (comment[0].equals(recipe.getId())) {
+                    lines.add(new RecipeExportLine.CommentLine((String) comment[1], (String) comment[2],
+                            (LocalDateTime) comment[3]));
+                }
+                comment = comments.hasNext() ? comments.next() : null;
+            }
+
+            writer.writeValue(generator, toLine(recipe, lines));
+            generator.writeRaw('\n');
+            if (++written % FETCH_SIZE == 0) {
+                // Drop the recipes (and their authors) already written from the persistence context
+                entityManager.clear();
+                generator.flush();
+                transfer.advance(FETCH_SIZE);
+            }
+        }
+        transfer.advance(written % FETCH_SIZE);
+        return written;
+    }
+
+    private RecipeExportLine toLine(Recipe recipe, List<RecipeExportLine.CommentLine> comments) {
+        double average = recipe.getRatingCount() > 0 ? (double) recipe.getRatingSum() / recipe.getRatingCount() : 0.0;
+        return new RecipeExportLine(recipe.getId(), recipe.getTitle(), recipe.getDescription(),
+                recipe.getIngredients(), recipe.getInstructions(), recipe.getCategory(), recipe.getImageUrl(),
+                recipe.getVideoUrl(), recipe.getUser().getUsername(), recipe.getCreatedAt(), recipe.getUpdatedAt(),
+                recipe.getRatingCount(), recipe.getRatingSum(), average, comments);
+    }
+}
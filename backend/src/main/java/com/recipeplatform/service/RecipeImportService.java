@@ -0,0 +1,273 @@
+package com.recipeplatform.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.recipeplatform.dto.RecipeExportLine;
+import com.recipeplatform.dto.RecipeImportReport;
+import com.recipeplatform.dto.RecipeImportRow;
+import com.recipeplatform.model.Comment;
+import com.recipeplatform.model.Recipe;
+import com.recipeplatform.model.User;
+import com.recipeplatform.repository.CommentRepository;
+import com.recipeplatform.repository.RecipeRepository;
+import com.recipeplatform.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Admin bulk import of recipes, from a JSON array or from NDJSON (the export format).
+ *
+ * The body is read one recipe at a time, so it is never held in memory. Valid rows are
+ * committed every recipes.import.batch-size rows; inside a batch Hibernate sends the inserts
+ * as JDBC batches (hibernate.jdbc.batch_size) with ids from the pooled sequences. Comments
+ * are inserted with their recipe and counted into its commentCount. Followers' timelines are
+ * fanned out per batch and the leaderboard is rebuilt once at the end; the typeahead index
+ * picks the recipes up on its next scheduled rebuild (a full rebuild per import would cost
+ * more than the import). A malformed body stops the import, but batches already committed stay.
+ */
+@Service
+public class RecipeImportService {
+
+    private static final int REPORTED_ERRORS = 50;
+    // Username -> id lookups kept per import; bounded so huge imports don't grow the heap
+    private static final int AUTHOR_CACHE_SIZE = 100_000;
+    private static final int MAX_COMMENT_LENGTH = 1000;
+
+    // Next row of the body, or null at the end
+    private interface RowSource {
+        RecipeImportRow next() throws IOException;
+    }
+
+    private record PendingComment(long authorId, String content, LocalDateTime createdAt) {}
+
+    private record PendingRecipe(Recipe recipe, long authorId, List<PendingComment> comments) {}
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private TopRatedLeaderboard topRatedLeaderboard;
+
+    @Autowired
+    private TransferTracker transferTracker;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${recipes.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Imports every recipe in a JSON array. Throws IllegalArgumentException if the body is not a JSON array of objects.
+     */
+    public RecipeImportReport importRecipes(InputStream json, User defaultAuthor) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of recipes");
+            }
+            return run("import", () -> switch (parser.nextToken()) {
+                case START_OBJECT -> objectMapper.readValue(parser, RecipeImportRow.class);
+                case END_ARRAY -> null;
+                default -> throw new IllegalArgumentException("Expected a recipe object");
+            }, defaultAuthor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Imports one recipe per line, as written by RecipeExportService.
+     * Throws IllegalArgumentException on a line that is not a JSON object.
+     */
+    public RecipeImportReport importNdjson(InputStream ndjson, User defaultAuthor) throws IOException {
+        try (MappingIterator<RecipeImportRow> rows = objectMapper.readerFor(RecipeImportRow.class).readValues(ndjson)) {
+            return run("ndjson import", () -> rows.hasNextValue() ? rows.nextValue() : null, defaultAuthor);
+        }
+    }
+
+    private RecipeImportReport run(String kind, RowSource source, User defaultAuthor) throws IOException {
+        TransferTracker.Transfer transfer = transferTracker.start(kind);
+        long start = System.currentTimeMillis();
+        Cache<String, Optional<Long>> authorIds = Caffeine.newBuilder().maximumSize(AUTHOR_CACHE_SIZE).build();
+        List<PendingRecipe> batch = new ArrayList<>(batchSize);
+        List<String> errors = new ArrayList<>();
+        int row = 0;
+        int imported = 0;
+        int skipped = 0;
+        int batches = 0;
+
+        try {
+            RecipeImportRow item;
+            while (true) {
+                try {
+                    item = source.next();
+                } catch (IllegalArgumentException | JsonProcessingException e) {
+                    String reason = e instanceof JsonProcessingException json ? "Malformed JSON: " + json.getOriginalMessage()
+                            : e.getMessage();
+                    throw new IllegalArgumentException(reason + " after row " + row
+                            + " (" + imported + " recipes already imported)", e);
+                }
+                if (item == null) {
+                    break;
+                }
+                row++;
+
+                List<String> problems = new ArrayList<>();
+                PendingRecipe pending = toPending(item, defaultAuthor, authorIds, problems);
+                if (!problems.isEmpty()) {
+                    skipped++;
+                    transfer.skip(1);
+                    if (errors.size() < REPORTED_ERRORS) {
+                        errors.add("#" + row + ": " + String.join(", ", problems));
+                    }
+                    continue;
+                }
+
+                batch.add(pending);
+                if (batch.size() == batchSize) {
+                    imported += commit(batch, transfer);
+                    batches++;
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                imported += commit(batch, transfer);
+                batches++;
+            }
+            if (imported > 0) {
+                topRatedLeaderboard.rebuild();
+            }
+            transfer.done();
+        } catch (RuntimeException | IOException e) {
+            transfer.failed(e);
+            throw e;
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        return new RecipeImportReport(imported, skipped, batches, elapsed,
+                elapsed == 0 ? imported : imported * 1000.0 / elapsed, errors);
+    }
+
+    // Resolves authors and validates; problems is filled instead of throwing
+    private PendingRecipe toPending(RecipeImportRow item, User defaultAuthor,
+                                    Cache<String, Optional<Long>> authorIds, List<String> problems) {
+        Optional<Long> authorId = item.author() == null ? Optional.of(defaultAuthor.getId())
+                : authorIds.get(item.author(), userRepository::findIdByUsername);
+        if (authorId.isEmpty()) {
+            problems.add("unknown author " + item.author());
+        }
+
+        LocalDateTime createdAt = item.createdAt() == null ? LocalDateTime.now() : item.createdAt();
+        Recipe recipe = new Recipe();
+        recipe.setTitle(item.title());
+        recipe.setDescription(item.description());
+        recipe.setIngredients(item.ingredients());
+        recipe.setInstructions(item.instructions());
+        recipe.setCategory(item.category());
+        recipe.setImageUrl(item.imageUrl());
+        recipe.setVideoUrl(item.videoUrl());
+        recipe.setCreatedAt(createdAt);
+        recipe.setUpdatedAt(item.updatedAt() == null ? createdAt : item.updatedAt());
+        recipe.setChangedAt(recipe.getUpdatedAt());
+        Set<ConstraintViolation<Recipe>> violations = validator.validate(recipe);
+        violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted().forEach(problems::add);
+
+        List<PendingComment> comments = new ArrayList<>();
+        List<RecipeExportLine.CommentLine> lines = item.comments() == null ? List.of() : item.comments();
+        for (int i = 0; i < lines.size(); i++) {
+            RecipeExportLine.CommentLine line = lines.get(i);
+            Optional<Long> commenterId = line.author() == null ? Optional.empty()
+                    : authorIds.get(line.author(), userRepository::findIdByUsername);
+            if (commenterId.isEmpty()) {
+                problems.add("comments[" + i + "] unknown author " + line.author());
+            } else if (line.content() == null || line.content().isBlank() || line.content().length() > MAX_COMMENT_LENGTH) {
+                problems.add("comments[" + i + "] content must be 1-" + MAX_COMMENT_LENGTH + " characters");
+            } else {
+                comments.add(new PendingComment(commenterId.get(), line.content(),
+                        line.createdAt() == null ? createdAt : line.createdAt()));
+            }
+        }
+        recipe.setCommentCount(comments.size());
+        return problems.isEmpty() ? new PendingRecipe(recipe, authorId.get(), comments) : null;
+    }
+
+    // Inserts and fans out one batch in its own transaction, then empties it
+    private int commit(List<PendingRecipe> batch, TransferTracker.Transfer transfer) {
+        int size = batch.size();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Imported recipes aren't hot; don't let them push the cached ones out of the second-level cache
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            List<Recipe> recipes = new ArrayList<>(size);
+            List<Comment> comments = new ArrayList<>();
+            for (PendingRecipe pending : batch) {
+                Recipe recipe = pending.recipe();
+                recipe.setUser(entityManager.getReference(User.class, pending.authorId()));
+                recipes.add(recipe);
+                for (PendingComment pendingComment : pending.comments()) {
+                    Comment comment = new Comment();
+                    comment.setContent(pendingComment.content());
+                    comment.setCreatedAt(pendingComment.createdAt());
+                    comment.setUser(entityManager.getReference(User.class, pendingComment.authorId()));
+                    comment.setRecipe(recipe);
+                    comments.add(comment);
+                }
+            }
+            recipeRepository.saveAll(recipes);
+            commentRepository.saveAll(comments);
+            entityManager.flush();
+            timelineService.onRecipesCreated(recipes);
+            // Don't let the persistence context grow with the import
+            entityManager.clear();
+        });
+        // Their cooks' followers see the new recipes in their feeds
+        catalogVersion.cooksChanged(batch.stream().map(PendingRecipe::authorId).collect(Collectors.toSet()));
+        batch.clear();
+        transfer.advance(size);
+        return size;
+    }
+}
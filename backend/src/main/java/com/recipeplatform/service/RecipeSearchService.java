@@ -0,0 +1,110 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.repository.RecipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recipe search over title, description and ingredients.
+ *
+ * On PostgreSQL this is a ranked full-text search backed by a GIN index on
+ * RecipeRepository.SEARCH_VECTOR (created at startup, maintained by the database
+ * on every insert/update/delete). Every term is prefix-matched so partial words
+ * typed into the search box already match. Other databases fall back to a LIKE scan.
+ */
+@Service
+public class RecipeSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeSearchService.class);
+
+    private static final int MAX_TERMS = 8;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile boolean fullTextEnabled = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndex() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                log.info("Full-text search needs PostgreSQL; recipe search will use LIKE matching");
+                return;
+            }
+        } catch (SQLException e) {
+            log.warn("Could not detect database type, recipe search will use LIKE matching", e);
+            return;
+        }
+
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_recipes_search ON recipes USING GIN ((" +
+                RecipeRepository.SEARCH_VECTOR + "))");
+        fullTextEnabled = true;
+        log.info("Full-text recipe search enabled");
+    }
+
+    public List<RecipeDto> search(String keyword, int page, int size) {
+        List<String> terms = tokenize(keyword);
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        if (!fullTextEnabled) {
+            String pattern = "%" + String.join(" ", terms) + "%";
+            return recipeRepository.searchCardsByPattern(pattern, PageRequest.of(page, size));
+        }
+
+        // "chick curr" -> "chick:* & curr:*"
+        String tsQuery = terms.stream().map(term -> term + ":*").collect(Collectors.joining(" & "));
+        List<Long> ids = recipeRepository.searchIdsByTsQuery(tsQuery, size, (long) page * size);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Load the cards and put them back in rank order
+        Map<Long, RecipeDto> cards = recipeRepository.findRecipeCardsByIds(ids).stream()
+                .collect(Collectors.toMap(RecipeDto::getId, Function.identity()));
+        List<RecipeDto> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            RecipeDto card = cards.get(id);
+            if (card != null) {
+                results.add(card);
+            }
+        }
+        return results;
+    }
+
+    // Splits on anything that isn't a letter or digit, which also strips tsquery operators
+    private List<String> tokenize(String keyword) {
+        if (keyword == null) {
+            return List.of();
+        }
+        return Arrays.stream(keyword.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .collect(Collectors.toList());
+    }
+}
@@ -1,15 +1,20 @@
 package com.recipeplatform.service;
 
+import com.recipeplatform.dto.CursorPage;
+import com.recipeplatform.dto.FeedCursor;
 import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.dto.RecipeVersion;
+import com.recipeplatform.dto.Suggestion;
 import com.recipeplatform.model.Recipe;
 import com.recipeplatform.model.User;
-import com.recipeplatform.repository.FollowRepository;
 import com.recipeplatform.repository.RecipeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.Optional;
 
 @Service
@@ -19,20 +24,102 @@ public class RecipeService {
     private RecipeRepository recipeRepository;
 
     @Autowired
-    private FollowRepository followRepository;
+    private TimelineService timelineService;
 
+    @Autowired
+    private TopRatedLeaderboard topRatedLeaderboard;
+
+    @Autowired
+    private RecipeSearchService recipeSearchService;
+
+    @Autowired
+    private RecipeSuggestService recipeSuggestService;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
+    @Value("${recipes.discover.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${recipes.discover.legacy-limit:500}")
+    private int legacyLimit;
+
+    // One transaction, so the recipe, its timeline fan-out and its outbox event commit together
+    @Transactional
     public Recipe createRecipe(Recipe recipe) {
         // Ensure timestamps are set on creation
         recipe.setCreatedAt(LocalDateTime.now());
-        recipe.setUpdatedAt(LocalDateTime.now());
-        return recipeRepository.save(recipe);
+        recipe.setUpdatedAt(recipe.getCreatedAt());
+        recipe.setChangedAt(recipe.getCreatedAt());
+        recipe.setRatingCount(0);
+        recipe.setRatingSum(0);
+        Recipe saved = recipeRepository.save(recipe);
+        topRatedLeaderboard.refresh(saved.getId());
+        recipeSuggestService.refresh(saved.getId());
+        timelineService.onRecipeCreated(saved);
+        notificationOutbox.recipePosted(saved);
+        catalogVersion.cookChanged(saved.getUser().getId());
+        return saved;
     }
 
     /**
-     * Gets all recipes for the "Discover" feed.
+     * Gets recipes for the "Discover" feed (compatibility mode).
+     * Returns only the newest recipes, capped at recipes.discover.legacy-limit.
      */
     public List<RecipeDto> getAllRecipes() {
-        return recipeRepository.findAllRecipeCardData();
+        return recipeRepository.findDiscoverPage(PageRequest.of(0, legacyLimit));
+    }
+
+    /**
+     * Gets one page of the "Discover" feed, newest first.
+     * Pass the nextCursor of the previous page to continue; null starts from the top.
+     */
+    public CursorPage<RecipeDto> getDiscoverPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        // Fetch one extra row so we know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<RecipeDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = recipeRepository.findDiscoverPage(limit);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            rows = recipeRepository.findDiscoverPageAfter(after.createdAt(), after.id(), limit);
+        }
+        return CursorPage.fromRows(rows, pageSize, last -> new FeedCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    /**
+     * Validator of GET /api/recipes: the newest recipes, up to recipes.discover.legacy-limit.
+     */
+    public CatalogVersion.Stamp getNewestVersion() {
+        return catalogVersion.discover(null, legacyLimit);
+    }
+
+    /**
+     * Validator of one Discover page; the rows are the page plus the one that decides nextCursor.
+     */
+    public CatalogVersion.Stamp getDiscoverVersion(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        return catalogVersion.discover(cursor == null || cursor.isBlank() ? null : FeedCursor.decode(cursor), pageSize + 1);
+    }
+
+    public CatalogVersion.Stamp getCategoryVersion(Recipe.Category category) {
+        return catalogVersion.category(category);
+    }
+
+    public CatalogVersion.Stamp getTopRatedVersion(Recipe.Category category) {
+        return topRatedLeaderboard.getVersion(category);
+    }
+
+    public CatalogVersion.Stamp getFeedVersion(User user) {
+        return catalogVersion.feed(user.getId());
     }
 
     /**
@@ -42,8 +129,11 @@ public class RecipeService {
         return recipeRepository.findById(id);
     }
 
-    public List<Recipe> getRecipesByCategory(Recipe.Category category) {
-        return recipeRepository.findByCategory(category);
+    /**
+     * Gets the ETag/Last-Modified of a recipe's detail page without loading the recipe.
+     */
+    public Optional<RecipeVersion> getRecipeVersion(Long id) {
+        return recipeRepository.findVersion(id);
     }
 
     /**
@@ -60,37 +150,69 @@ public class RecipeService {
         return recipeRepository.findMyRecipes(userId);
     }
 
-    public List<Recipe> searchRecipes(String keyword) {
-        return recipeRepository.searchByKeyword(keyword);
+    /**
+     * Typeahead completions (recipe titles, ingredients, cooks) for the search box.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return recipeSuggestService.suggest(prefix, limit);
+    }
+
+    /**
+     * Searches recipe titles, descriptions and ingredients, best match first.
+     */
+    public List<RecipeDto> searchRecipes(String keyword, int page, int size) {
+        return recipeSearchService.search(keyword, Math.max(0, page), Math.max(1, Math.min(size, maxPageSize)));
     }
 
     public Recipe updateRecipe(Recipe recipe) {
         // Ensure update timestamp is set
         recipe.setUpdatedAt(LocalDateTime.now());
-        return recipeRepository.save(recipe);
+        recipe.setChangedAt(recipe.getUpdatedAt());
+        Recipe saved = recipeRepository.save(recipe);
+        // The cached copy is refreshed from this instance, whose rating/comment counts may be
+        // older than the row's (they are never written through the entity); reload it instead
+        entityCacheService.evictRecipe(saved.getId());
+        topRatedLeaderboard.refresh(saved.getId());
+        recipeSuggestService.refresh(saved.getId());
+        catalogVersion.cookChanged(saved.getUser().getId());
+        return saved;
     }
 
     public void deleteRecipe(Long id) {
+        recipeRepository.findAuthorId(id).ifPresent(catalogVersion::cookChanged);
         recipeRepository.deleteById(id);
+        entityCacheService.evictRecipe(id);
+        timelineService.onRecipeDeleted(id);
+        topRatedLeaderboard.remove(id);
+        recipeSuggestService.remove(id);
     }
 
+    /**
+     * Gets the top-rated recipes (for the "Reels" feed), served from the in-memory leaderboard.
+     */
     public List<RecipeDto> getTopRatedRecipes() {
-        return recipeRepository.findTopRatedRecipeCards();
+        return topRatedLeaderboard.getTopRated(null, 0, topRatedLeaderboard.getSize());
     }
 
     /**
-     * Gets all recipes from users the current user follows (for "Following" feed).
+     * Gets one page of the top-rated recipes, optionally limited to one category.
      */
-    public List<RecipeDto> getFeedForUser(User user) {
-        // 1. Find all IDs the user follows
-        List<Long> followingIds = followRepository.findFollowingIdsByFollowerId(user.getId());
+    public List<RecipeDto> getTopRatedRecipes(Recipe.Category category, int page, int size) {
+        return topRatedLeaderboard.getTopRated(category, page, Math.max(1, Math.min(size, maxPageSize)));
+    }
 
-        // 2. If they follow no one, return an empty list
-        if (followingIds.isEmpty()) {
-            return new ArrayList<>();
-        }
+    /**
+     * Gets recipes from users the current user follows (for "Following" feed, compatibility mode).
+     * Returns only the newest recipes, capped at recipes.discover.legacy-limit.
+     */
+    public List<RecipeDto> getFeedForUser(User user) {
+        return timelineService.getPage(user.getId(), null, legacyLimit).getItems();
+    }
 
-        // 3. Fetch recipes from those IDs
-        return recipeRepository.findRecipesByFollowing(followingIds);
+    /**
+     * Gets one page of the "Following" feed, newest first.
+     */
+    public CursorPage<RecipeDto> getFeedPage(User user, String cursor, int size) {
+        return timelineService.getPage(user.getId(), cursor, Math.max(1, Math.min(size, maxPageSize)));
     }
-}
\ No newline at end of file
+}
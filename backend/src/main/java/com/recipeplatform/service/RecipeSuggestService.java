@@ -0,0 +1,295 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.RecipeSuggestSource;
+import com.recipeplatform.dto.SuggestIndexStats;
+import com.recipeplatform.dto.Suggestion;
+import com.recipeplatform.repository.RecipeRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead for the search box, served from an in-memory SuggestTrie of
+ * recipe titles, ingredient names and cook usernames.
+ *
+ * Every recipe contributes weight (1 + ratingSum) to each of its terms, so well-rated,
+ * often-rated recipes and the ingredients/cooks behind many of them rank first.
+ * Recipe create/update/delete adjust only that recipe's terms once they commit; a periodic rebuild
+ * picks up weight changes from new ratings. Changes made while a rebuild reads the catalog
+ * are journaled and replayed onto the new index before it is swapped in.
+ */
+@Service
+public class RecipeSuggestService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeSuggestService.class);
+
+    private static final int REBUILD_BATCH = 1000;
+    private static final int MAX_TERM_LENGTH = 60;
+
+    // Leading words dropped from an ingredient line ("2 cups of rice" -> "rice")
+    private static final Set<String> QUANTITY_WORDS = Set.of(
+            "cup", "cups", "tbsp", "tsp", "tablespoon", "tablespoons", "teaspoon", "teaspoons",
+            "g", "kg", "mg", "ml", "l", "oz", "lb", "lbs", "pinch", "handful", "of", "a", "an");
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Value("${suggest.top-k:10}")
+    private int topK;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Replaced wholesale on rebuild; only read or mutated under the lock
+    private Index index;
+
+    // Changes made while rebuild() runs, replayed onto the new index; guarded by the write lock
+    private List<Change> journal;
+
+    // A recipe's terms replaced by source's, or removed when source is null
+    private record Change(Long recipeId, RecipeSuggestSource source) {}
+
+    @PostConstruct
+    void start() {
+        index = new Index(topK);
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = SuggestTrie.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Suggestion> result = new ArrayList<>();
+            for (SuggestTrie.Term term : index.trie.lookup(key, Math.max(1, Math.min(limit, topK)))) {
+                result.add(new Suggestion(term.text, term.type, term.weight));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a new recipe, or replaces the terms of an existing one. Called in the write's transaction,
+     * the index changes once it has committed; a failure here is logged and never undoes the write.
+     */
+    public void refresh(Long recipeId) {
+        afterCommit(() -> apply(new Change(recipeId, recipeRepository.findSuggestSource(recipeId).orElse(null))));
+    }
+
+    /**
+     * Takes a deleted recipe's terms out of the index, once the delete has committed.
+     */
+    public void remove(Long recipeId) {
+        afterCommit(() -> apply(new Change(recipeId, null)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runQuietly(action);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runQuietly(action);
+            }
+        });
+    }
+
+    // The next rebuild puts the index right again
+    private void runQuietly(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.warn("Could not update the typeahead index: {}", e.toString());
+        }
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.add(change);
+            }
+            index.apply(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SuggestIndexStats getStats() {
+        lock.readLock().lock();
+        try {
+            return new SuggestIndexStats(index.contributions.size(), index.terms.size(),
+                    index.trie.nodeCount(), index.trie.estimateBytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    // Builds a fresh index off-lock and swaps it in; one rebuild at a time
+    @Scheduled(fixedDelayString = "${suggest.rebuild-interval-ms:600000}",
+               initialDelayString = "${suggest.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index fresh = new Index(topK);
+        try {
+            long afterId = 0;
+            List<RecipeSuggestSource> batch;
+            do {
+                batch = recipeRepository.findSuggestSourcesAfter(afterId, PageRequest.of(0, REBUILD_BATCH));
+                for (RecipeSuggestSource source : batch) {
+                    fresh.add(source);
+                    afterId = source.id();
+                }
+            } while (batch.size() == REBUILD_BATCH);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            journal.forEach(fresh::apply);
+            journal = null;
+            index = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        SuggestIndexStats stats = getStats();
+        log.info("Rebuilt typeahead index: {} recipes, {} terms, {} nodes, ~{} KB ({} ms)",
+                stats.recipes(), stats.terms(), stats.nodes(), stats.estimatedBytes() / 1024,
+                System.currentTimeMillis() - start);
+    }
+
+    private static final class Index {
+        final SuggestTrie trie;
+        final Map<String, SuggestTrie.Term> terms = new HashMap<>();
+        // What each recipe added, so it can be taken out again on update/delete
+        final Map<Long, Contribution> contributions = new HashMap<>();
+
+        Index(int topK) {
+            this.trie = new SuggestTrie(topK);
+        }
+
+        void add(RecipeSuggestSource source) {
+            long weight = 1 + source.ratingSum();
+            List<SuggestTrie.Term> added = new ArrayList<>();
+            for (String[] entry : termsOf(source)) {
+                String text = entry[0];
+                String type = entry[1];
+                SuggestTrie.Term term = terms.get(type + ":" + text);
+                if (term == null) {
+                    term = new SuggestTrie.Term(text, type);
+                    term.weight = weight;
+                    term.refs = 1;
+                    terms.put(type + ":" + text, term);
+                    trie.insert(term);
+                } else {
+                    term.weight += weight;
+                    term.refs++;
+                    trie.reweigh(term);
+                }
+                added.add(term);
+            }
+            contributions.put(source.id(), new Contribution(weight, added));
+        }
+
+        // Idempotent, so replaying a change the rebuild already saw does no harm
+        void apply(Change change) {
+            remove(change.recipeId());
+            if (change.source() != null) {
+                add(change.source());
+            }
+        }
+
+        void remove(Long recipeId) {
+            Contribution contribution = contributions.remove(recipeId);
+            if (contribution == null) {
+                return;
+            }
+            for (SuggestTrie.Term term : contribution.terms()) {
+                term.weight -= contribution.weight();
+                term.refs--;
+                if (term.refs == 0) {
+                    terms.remove(term.type + ":" + term.text);
+                    trie.remove(term);
+                } else {
+                    trie.reweigh(term);
+                }
+            }
+        }
+    }
+
+    private record Contribution(long weight, List<SuggestTrie.Term> terms) {}
+
+    // [text, type] pairs for one recipe, without duplicates
+    private static List<String[]> termsOf(RecipeSuggestSource source) {
+        Set<String> seen = new LinkedHashSet<>();
+        List<String[]> result = new ArrayList<>();
+        addTerm(result, seen, source.title(), "RECIPE");
+        addTerm(result, seen, source.username(), "COOK");
+        if (source.ingredients() != null) {
+            for (String line : source.ingredients().split("[,;\\n]")) {
+                addTerm(result, seen, ingredientName(line), "INGREDIENT");
+            }
+        }
+        return result;
+    }
+
+    private static void addTerm(List<String[]> result, Set<String> seen, String raw, String type) {
+        String text = SuggestTrie.normalize(raw);
+        if (text.length() < 2 || text.length() > MAX_TERM_LENGTH || !seen.add(type + ":" + text)) {
+            return;
+        }
+        result.add(new String[] {text, type});
+    }
+
+    // "2 cups chopped onions" -> "chopped onions": drops leading quantity words
+    private static String ingredientName(String line) {
+        String[] words = SuggestTrie.normalize(line).split(" ");
+        int start = 0;
+        while (start < words.length && (words[start].matches(".*\\d.*") || QUANTITY_WORDS.contains(words[start]))) {
+            start++;
+        }
+        return String.join(" ", Arrays.copyOfRange(words, start, words.length));
+    }
+}
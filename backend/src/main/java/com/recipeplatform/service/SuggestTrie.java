@@ -0,0 +1,235 @@
+package com.recipeplatform.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix trie where every node caches the top-k terms of its subtree,
+ * so a lookup is a walk down the prefix plus a copy of at most k entries.
+ *
+ * Children are kept in sorted parallel arrays instead of maps to keep nodes small.
+ * A term is indexed under its full text and under each later word start
+ * ("chicken curry" is also reachable from "curry").
+ *
+ * Not thread-safe; RecipeSuggestService guards it with a read/write lock.
+ */
+final class SuggestTrie {
+
+    static final class Term {
+        final String text;
+        final String type;
+        long weight;
+        int refs;
+
+        Term(String text, String type) {
+            this.text = text;
+            this.type = type;
+        }
+    }
+
+    private static final Comparator<Term> BY_WEIGHT = Comparator
+            .comparingLong((Term t) -> t.weight).reversed()
+            .thenComparing(t -> t.text);
+
+    private static final int MAX_INDEXED_WORDS = 4;
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Term[] NO_TERMS = new Term[0];
+
+    private static final class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        Term[] terms = NO_TERMS; // terms whose indexed string ends here
+        Term[] top = NO_TERMS;   // best k terms in this subtree, highest weight first
+    }
+
+    private final Node root = new Node();
+    private final int k;
+    private int nodeCount = 1;
+
+    SuggestTrie(int k) {
+        this.k = k;
+    }
+
+    List<Term> lookup(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = child(node, prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return Arrays.asList(Arrays.copyOf(node.top, Math.min(limit, node.top.length)));
+    }
+
+    void insert(Term term) {
+        for (String key : indexKeys(term.text)) {
+            Node[] path = walk(key, true);
+            Node end = path[path.length - 1];
+            end.terms = append(end.terms, term);
+            recompute(path);
+        }
+    }
+
+    void remove(Term term) {
+        for (String key : indexKeys(term.text)) {
+            Node[] path = walk(key, false);
+            if (path == null) {
+                continue;
+            }
+            Node end = path[path.length - 1];
+            end.terms = without(end.terms, term);
+            recompute(path);
+            prune(path, key);
+        }
+    }
+
+    // Call after a term's weight changed so the cached rankings along its paths are re-sorted
+    void reweigh(Term term) {
+        for (String key : indexKeys(term.text)) {
+            Node[] path = walk(key, false);
+            if (path != null) {
+                recompute(path);
+            }
+        }
+    }
+
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Shallow-size estimate assuming compressed oops: 16 byte object headers,
+     * 4 byte references and 16 byte array headers.
+     */
+    long estimateBytes() {
+        long bytes = 0;
+        List<Node> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            bytes += 32;                               // node header + 4 references
+            bytes += 16 + 2L * node.keys.length;       // char[] keys
+            bytes += 16 + 4L * node.children.length;   // Node[] children
+            bytes += 16 + 4L * node.terms.length;      // Term[] terms (shared empty array ignored)
+            bytes += 16 + 4L * node.top.length;        // Term[] top
+            stack.addAll(Arrays.asList(node.children));
+        }
+        return bytes;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase().replaceAll("\\s+", " ");
+    }
+
+    private static List<String> indexKeys(String text) {
+        List<String> keys = new ArrayList<>();
+        keys.add(text);
+        int words = 1;
+        for (int i = text.indexOf(' '); i >= 0 && words < MAX_INDEXED_WORDS; i = text.indexOf(' ', i + 1)) {
+            keys.add(text.substring(i + 1));
+            words++;
+        }
+        return keys;
+    }
+
+    // Returns root..end for key; creates missing nodes when create is set, otherwise null if absent
+    private Node[] walk(String key, boolean create) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            Node next = child(path[i], key.charAt(i));
+            if (next == null) {
+                if (!create) {
+                    return null;
+                }
+                next = addChild(path[i], key.charAt(i));
+            }
+            path[i + 1] = next;
+        }
+        return path;
+    }
+
+    private static Node child(Node node, char c) {
+        int i = Arrays.binarySearch(node.keys, c);
+        return i >= 0 ? node.children[i] : null;
+    }
+
+    private Node addChild(Node node, char c) {
+        int insertAt = -(Arrays.binarySearch(node.keys, c) + 1);
+        char[] keys = new char[node.keys.length + 1];
+        Node[] children = new Node[node.children.length + 1];
+        System.arraycopy(node.keys, 0, keys, 0, insertAt);
+        System.arraycopy(node.children, 0, children, 0, insertAt);
+        System.arraycopy(node.keys, insertAt, keys, insertAt + 1, node.keys.length - insertAt);
+        System.arraycopy(node.children, insertAt, children, insertAt + 1, node.children.length - insertAt);
+        Node created = new Node();
+        keys[insertAt] = c;
+        children[insertAt] = created;
+        node.keys = keys;
+        node.children = children;
+        nodeCount++;
+        return created;
+    }
+
+    // Drops nodes at the end of key that no longer lead to any term
+    private void prune(Node[] path, String key) {
+        for (int i = path.length - 1; i > 0; i--) {
+            Node node = path[i];
+            if (node.terms.length > 0 || node.children.length > 0) {
+                return;
+            }
+            Node parent = path[i - 1];
+            int at = Arrays.binarySearch(parent.keys, key.charAt(i - 1));
+            char[] keys = new char[parent.keys.length - 1];
+            Node[] children = new Node[parent.children.length - 1];
+            System.arraycopy(parent.keys, 0, keys, 0, at);
+            System.arraycopy(parent.children, 0, children, 0, at);
+            System.arraycopy(parent.keys, at + 1, keys, at, keys.length - at);
+            System.arraycopy(parent.children, at + 1, children, at, children.length - at);
+            parent.keys = keys;
+            parent.children = children;
+            nodeCount--;
+        }
+    }
+
+    // Rebuilds the cached top-k bottom-up, from the end of the path to the root
+    private void recompute(Node[] path) {
+        for (int i = path.length - 1; i >= 0; i--) {
+            Node node = path[i];
+            Map<Term, Boolean> candidates = new IdentityHashMap<>();
+            for (Term term : node.terms) {
+                candidates.put(term, Boolean.TRUE);
+            }
+            for (Node child : node.children) {
+                for (Term term : child.top) {
+                    candidates.put(term, Boolean.TRUE);
+                }
+            }
+            Term[] sorted = candidates.keySet().toArray(NO_TERMS);
+            Arrays.sort(sorted, BY_WEIGHT);
+            node.top = sorted.length > k ? Arrays.copyOf(sorted, k) : sorted;
+        }
+    }
+
+    private static Term[] append(Term[] terms, Term term) {
+        Term[] result = Arrays.copyOf(terms, terms.length + 1);
+        result[terms.length] = term;
+        return result;
+    }
+
+    private static Term[] without(Term[] terms, Term term) {
+        List<Term> result = new ArrayList<>(terms.length);
+        for (Term t : terms) {
+            if (t != term) {
+                result.add(t);
+            }
+        }
+        return result.toArray(NO_TERMS);
+    }
+}
@@ -0,0 +1,153 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.CursorPage;
+import com.recipeplatform.dto.FeedCursor;
+import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.model.Recipe;
+import com.recipeplatform.repository.FollowRepository;
+import com.recipeplatform.repository.RecipeRepository;
+import com.recipeplatform.repository.TimelineRepository;
+import com.recipeplatform.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialized "Following" timelines (fan-out on write, with a pull path for big cooks).
+ *
+ * A new recipe is copied into the timeline_entries of every follower of its cook,
+ * unless the cook has more than timeline.celebrity-threshold followers; those
+ * recipes are instead read from the recipes table at request time and merged in.
+ * Timelines keep at most timeline.max-entries rows each (pruned periodically).
+ */
+@Service
+@Transactional
+public class TimelineService {
+
+    private static final Logger log = LoggerFactory.getLogger(TimelineService.class);
+
+    private static final Comparator<RecipeDto> NEWEST_FIRST = Comparator
+            .comparing(RecipeDto::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(RecipeDto::getId, Comparator.reverseOrder());
+
+    @Autowired
+    private TimelineRepository timelineRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${timeline.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${timeline.celebrity-threshold:1000}")
+    private long celebrityThreshold;
+
+    /**
+     * Gets one page of the user's timeline, newest first.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<RecipeDto> getPage(Long userId, String cursor, int size) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        FeedCursor after = (cursor == null || cursor.isBlank()) ? null : FeedCursor.decode(cursor);
+
+        // Push side: rows already materialized for this user
+        List<RecipeDto> rows = new ArrayList<>(after == null
+                ? timelineRepository.findTimelinePage(userId, limit)
+                : timelineRepository.findTimelinePageAfter(userId, after.createdAt(), after.id(), limit));
+
+        // Pull side: big cooks this user follows are never fanned out
+        List<Long> pulledAuthors = followRepository.findFollowedIdsWithFollowersOver(userId, celebrityThreshold);
+        if (!pulledAuthors.isEmpty()) {
+            rows.addAll(after == null
+                    ? recipeRepository.findAuthorsPage(pulledAuthors, limit)
+                    : recipeRepository.findAuthorsPageAfter(pulledAuthors, after.createdAt(), after.id(), limit));
+        }
+
+        // Merge both sorted sources; a cook who just crossed the threshold can appear in both
+        Map<Long, RecipeDto> merged = new LinkedHashMap<>();
+        rows.stream().sorted(NEWEST_FIRST).forEach(card -> merged.putIfAbsent(card.getId(), card));
+        List<RecipeDto> page = new ArrayList<>(merged.values());
+        if (page.size() > size + 1) {
+            page = page.subList(0, size + 1);
+        }
+        return CursorPage.fromRows(page, size, last -> new FeedCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    public void onRecipeCreated(Recipe recipe) {
+        Long authorId = recipe.getUser().getId();
+        if (userRepository.findFollowerCountById(authorId) <= celebrityThreshold) {
+            timelineRepository.fanOut(recipe.getId(), authorId, recipe.getCreatedAt());
+        }
+    }
+
+    // Bulk variant for imports: one statement for the whole batch
+    public void onRecipesCreated(List<Recipe> recipes) {
+        timelineRepository.fanOutAll(recipes.stream().map(Recipe::getId).toList(), celebrityThreshold);
+    }
+
+    public void onRecipeDeleted(Long recipeId) {
+        timelineRepository.deleteByRecipeId(recipeId);
+    }
+
+    // Called after the follow row was saved and the follower count incremented
+    public void onFollow(Long followerId, Long cookId) {
+        if (userRepository.findFollowerCountById(cookId) <= celebrityThreshold) {
+            timelineRepository.backfill(followerId, cookId, maxEntries);
+        }
+    }
+
+    // Called after the follow row was deleted and the follower count decremented to followerCount
+    public void onUnfollow(Long followerId, Long cookId, long followerCount) {
+        timelineRepository.deleteByUserIdAndAuthorId(followerId, cookId);
+        if (followerCount + 1 > celebrityThreshold && followerCount <= celebrityThreshold) {
+            // The cook just dropped back to the push side; their recent recipes were never fanned out
+            timelineRepository.backfillFollowers(cookId, maxEntries);
+        }
+    }
+
+    public void onUserDeleted(Long userId) {
+        timelineRepository.deleteByUser(userId);
+    }
+
+    // Follower counts and timelines are derived data; (re)build them for data that predates this table
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        userRepository.recountFollowers();
+        if (timelineRepository.count() == 0) {
+            int inserted = timelineRepository.rebuildAll(celebrityThreshold, maxEntries);
+            log.info("Built timelines from follows: {} entries", inserted);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${timeline.prune-interval-ms:3600000}",
+               initialDelayString = "${timeline.prune-interval-ms:3600000}")
+    public void prune() {
+        int pruned = timelineRepository.prune(maxEntries);
+        if (pruned > 0) {
+            catalogVersion.timelinesChanged();
+            log.info("Pruned {} timeline entries beyond {} per user", pruned, maxEntries);
+        }
+    }
+}
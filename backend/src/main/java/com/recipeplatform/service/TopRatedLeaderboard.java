@@ -0,0 +1,285 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.model.Recipe;
+import com.recipeplatform.repository.RecipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory top-rated leaderboard behind /api/recipes/top-rated.
+ *
+ * Recipes are ranked by Bayesian average: (minVotes * globalMean + ratingSum) / (minVotes + ratingCount),
+ * so a single 5-star vote can't outrank a recipe with hundreds of good ratings.
+ * There is one board for the whole catalog and one per Recipe.Category. Each board keeps
+ * 2 x size entries (the extra half absorbs deletes and drops between rebuilds) and serves the first size.
+ *
+ * Writes re-rank a single recipe; reads are served from an immutable snapshot without locking.
+ * The global mean only changes on the periodic full rebuild.
+ */
+@Service
+public class TopRatedLeaderboard {
+
+    private static final Logger log = LoggerFactory.getLogger(TopRatedLeaderboard.class);
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingDouble(Entry::score).reversed()
+            .thenComparing(e -> e.card().getId(), Comparator.reverseOrder());
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Value("${leaderboard.size:100}")
+    private int size;
+
+    @Value("${leaderboard.min-votes:5}")
+    private double minVotes;
+
+    private final Board overall = new Board();
+    private final Map<Recipe.Category, Board> byCategory = new EnumMap<>(Recipe.Category.class);
+
+    private volatile double globalMean = 0.0;
+
+    public TopRatedLeaderboard() {
+        for (Recipe.Category category : Recipe.Category.values()) {
+            byCategory.put(category, new Board());
+        }
+    }
+
+    /**
+     * Gets a page of the leaderboard. A null category means the whole catalog.
+     */
+    public List<RecipeDto> getTopRated(Recipe.Category category, int page, int pageSize) {
+        List<RecipeDto> snapshot = board(category).published.cards();
+        int from = Math.max(0, page) * pageSize;
+        if (from >= snapshot.size()) {
+            return List.of();
+        }
+        return snapshot.subList(from, Math.min(from + pageSize, snapshot.size()));
+    }
+
+    public int getSize() { return size; }
+
+    /**
+     * Validator of a board (a null category means the whole catalog): moves only when the ranking
+     * or one of the cards served changes, not on every vote for a recipe that isn't on it.
+     */
+    public CatalogVersion.Stamp getVersion(Recipe.Category category) {
+        Published published = board(category).published;
+        return catalogVersion.board(category == null ? "top" : "top-" + category.name(),
+                published.version(), published.lastModified());
+    }
+
+    private Board board(Recipe.Category category) {
+        return category == null ? overall : byCategory.get(category);
+    }
+
+    /**
+     * Re-ranks one recipe after it was created, updated or rated. Called in the write's transaction,
+     * the board changes once it has committed; a failure here is logged and never undoes the write.
+     */
+    public void refresh(Long recipeId) {
+        afterCommit(() -> rerank(recipeId));
+    }
+
+    /**
+     * Drops a deleted recipe from every board, once the delete has committed.
+     */
+    public void remove(Long recipeId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                removeFromBoards(recipeId);
+                publish();
+            }
+        });
+    }
+
+    private void rerank(Long recipeId) {
+        Optional<RecipeDto> card = recipeRepository.findRecipeCard(recipeId);
+        synchronized (this) {
+            removeFromBoards(recipeId);
+            card.ifPresent(c -> {
+                Entry entry = new Entry(score(c), c);
+                overall.offer(entry, capacity());
+                // Recipes without a category are only on the overall board
+                if (c.getCategory() != null) {
+                    byCategory.get(c.getCategory()).offer(entry, capacity());
+                }
+            });
+            publish();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runQuietly(action);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runQuietly(action);
+            }
+        });
+    }
+
+    // The next rebuild puts the boards right again
+    private void runQuietly(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.warn("Could not update the top-rated leaderboard: {}", e.toString());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    // Picks up the new global mean and refills boards that shrank through deletes
+    @Scheduled(fixedDelayString = "${leaderboard.rebuild-interval-ms:300000}",
+               initialDelayString = "${leaderboard.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+
+        Object[] totals = recipeRepository.findGlobalRatingTotals().get(0);
+        long sum = ((Number) totals[0]).longValue();
+        long count = ((Number) totals[1]).longValue();
+        double mean = count == 0 ? 0.0 : (double) sum / count;
+
+        PageRequest limit = PageRequest.of(0, capacity());
+        List<RecipeDto> top = recipeRepository.findTopByBayesianScore(minVotes, mean, limit);
+        Map<Recipe.Category, List<RecipeDto>> topByCategory = new EnumMap<>(Recipe.Category.class);
+        for (Recipe.Category category : Recipe.Category.values()) {
+            topByCategory.put(category, recipeRepository.findTopByBayesianScoreInCategory(category, minVotes, mean, limit));
+        }
+
+        synchronized (this) {
+            globalMean = mean;
+            overall.reset(top, this::score);
+            topByCategory.forEach((category, cards) -> byCategory.get(category).reset(cards, this::score));
+            publish();
+        }
+        log.info("Rebuilt top-rated leaderboard (global mean {}, {} ms)",
+                String.format("%.3f", mean), System.currentTimeMillis() - start);
+    }
+
+    private double score(RecipeDto card) {
+        double ratingSum = card.getAverageRating() * card.getRatingCount();
+        return (minVotes * globalMean + ratingSum) / (minVotes + card.getRatingCount());
+    }
+
+    private int capacity() {
+        return size * 2;
+    }
+
+    private void removeFromBoards(Long recipeId) {
+        overall.remove(recipeId);
+        byCategory.values().forEach(board -> board.remove(recipeId));
+    }
+
+    private void publish() {
+        overall.publish(size);
+        byCategory.values().forEach(board -> board.publish(size));
+    }
+
+    private record Entry(double score, RecipeDto card) {}
+
+    // What a board serves; replaced as a whole so the cards and their version are read together
+    private record Published(List<RecipeDto> cards, long version, long lastModified) {}
+
+    // Not thread-safe on its own; all mutations happen while holding the leaderboard lock
+    private static final class Board {
+        private final TreeSet<Entry> ranked = new TreeSet<>(RANKING);
+        private final Map<Long, Entry> byId = new HashMap<>();
+        private volatile Published published = new Published(List.of(), 0, System.currentTimeMillis());
+
+        void offer(Entry entry, int capacity) {
+            if (ranked.size() >= capacity && RANKING.compare(entry, ranked.last()) > 0) {
+                return; // worse than everything we keep
+            }
+            ranked.add(entry);
+            byId.put(entry.card().getId(), entry);
+            while (ranked.size() > capacity) {
+                byId.remove(ranked.pollLast().card().getId());
+            }
+        }
+
+        void remove(Long recipeId) {
+            Entry old = byId.remove(recipeId);
+            if (old != null) {
+                ranked.remove(old);
+            }
+        }
+
+        void reset(List<RecipeDto> cards, ToDoubleFunction<RecipeDto> scorer) {
+            ranked.clear();
+            byId.clear();
+            for (RecipeDto card : cards) {
+                Entry entry = new Entry(scorer.applyAsDouble(card), card);
+                ranked.add(entry);
+                byId.put(card.getId(), entry);
+            }
+        }
+
+        void publish(int size) {
+            List<RecipeDto> top = new ArrayList<>(Math.min(size, ranked.size()));
+            for (Entry entry : ranked) {
+                if (top.size() == size) {
+                    break;
+                }
+                top.add(entry.card());
+            }
+            Published current = published;
+            if (!sameCards(top, current.cards())) {
+                published = new Published(List.copyOf(top), current.version() + 1, System.currentTimeMillis());
+            }
+        }
+
+        // A re-rank or rebuild reads fresh card objects, so compare what the client sees
+        private static boolean sameCards(List<RecipeDto> a, List<RecipeDto> b) {
+            if (a.size() != b.size()) {
+                return false;
+            }
+            for (int i = 0; i < a.size(); i++) {
+                RecipeDto x = a.get(i);
+                RecipeDto y = b.get(i);
+                if (x != y && !(x.getId().equals(y.getId())
+                        && Objects.equals(x.getTitle(), y.getTitle())
+                        && Objects.equals(x.getDescription(), y.getDescription())
+                        && Objects.equals(x.getImageUrl(), y.getImageUrl())
+                        && x.getCategory() == y.getCategory()
+                        && Objects.equals(x.getUsername(), y.getUsername())
+                        && x.getAverageRating().equals(y.getAverageRating())
+                        && x.getRatingCount() == y.getRatingCount())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.TransferStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of bulk catalog exports and imports. Running transfers are updated as rows
+ * stream through and logged every PROGRESS_LOG_ROWS rows; the last HISTORY finished
+ * transfers are kept for GET /api/admin/recipes/transfers.
+ */
+@Service
+public class TransferTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferTracker.class);
+
+    private static final int HISTORY = 20;
+    private static final long PROGRESS_LOG_ROWS = 100_000;
+
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, Transfer> running = new ConcurrentHashMap<>();
+    private final Deque<TransferStatus> finished = new ArrayDeque<>();
+
+    public Transfer start(String kind) {
+        Transfer transfer = new Transfer(ids.incrementAndGet(), kind);
+        running.put(transfer.id, transfer);
+        log.info("Started {} #{}", kind, transfer.id);
+        return transfer;
+    }
+
+    // Running transfers first, then finished ones, newest first
+    public List<TransferStatus> list() {
+        List<TransferStatus> statuses = new ArrayList<>();
+        running.values().stream()
+                .sorted((a, b) -> Long.compare(b.id, a.id))
+                .forEach(t -> statuses.add(t.status("RUNNING", null)));
+        synchronized (finished) {
+            statuses.addAll(finished);
+        }
+        return statuses;
+    }
+
+    private void finish(Transfer transfer, String state, String error) {
+        TransferStatus status = transfer.status(state, error);
+        synchronized (finished) {
+            finished.addFirst(status);
+            while (finished.size() > HISTORY) {
+                finished.removeLast();
+            }
+        }
+        running.remove(transfer.id);
+        log.info("{} #{} {}: {} rows, {} skipped ({} ms)", transfer.kind, transfer.id, state,
+                status.rows(), status.skipped(), status.elapsedMillis());
+    }
+
+    public final class Transfer {
+        private final long id;
+        private final String kind;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+
+        private Transfer(long id, String kind) {
+            this.id = id;
+            this.kind = kind;
+        }
+
+        public void advance(long count) {
+            long before = rows.getAndAdd(count);
+            if ((before + count) / PROGRESS_LOG_ROWS > before / PROGRESS_LOG_ROWS) {
+                log.info("{} #{}: {} rows so far", kind, id, before + count);
+            }
+        }
+
+        public void skip(long count) {
+            skipped.addAndGet(count);
+        }
+
+        public void done() {
+            finish(this, "DONE", null);
+        }
+
+        public void failed(Exception e) {
+            finish(this, "FAILED", e.getMessage());
+        }
+
+        private TransferStatus status(String state, String error) {
+            long elapsed = (System.nanoTime() - startNanos) / 1_000_000;
+            long count = rows.get();
+            return new TransferStatus(id, kind, state, startedAt, count, skipped.get(), elapsed,
+                    elapsed == 0 ? count : count * 1000.0 / elapsed, error);
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.recipeplatform.service;
 
+import com.recipeplatform.config.PrincipalCache;
 import com.recipeplatform.model.User;
+import com.recipeplatform.repository.RecipeRepository;
 import com.recipeplatform.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,9 +20,39 @@ public class UserService implements UserDetailsService{
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RecipeRepository recipeRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private TopRatedLeaderboard topRatedLeaderboard;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private FollowGraph followGraph;
+
+    @Autowired
+    private RecipeSuggestService recipeSuggestService;
+
     public User registerUser(User user) {
         if (userRepository.findByUsername(user.getUsername()).isPresent()) {
             throw new RuntimeException("Username already taken");
@@ -73,11 +106,46 @@ public class UserService implements UserDetailsService{
      * @param idToDelete The ID of the user to delete
      * @param adminUser The currently authenticated admin user
      */
+    @Transactional
     public void deleteUser(Long idToDelete, User adminUser) {
         if (idToDelete.equals(adminUser.getId())) {
             throw new RuntimeException("Admin user cannot delete their own account.");
         }
+        // The user's ratings and comments are removed by cascade, so take them out of the recipe aggregates first
+        ratingService.removeRatingsByUser(idToDelete);
+        commentService.removeCommentsByUser(idToDelete);
+        timelineService.onUserDeleted(idToDelete);
+        followGraph.onUserDeleted(idToDelete);
+        userRepository.findById(idToDelete).ifPresent(user -> principalCache.invalidate(user.getUsername()));
+        List<Long> recipeIds = recipeRepository.findIdsByUserId(idToDelete);
         userRepository.deleteById(idToDelete);
+        // Their recipes, and with the last of them their name, leave the typeahead and the
+        // leaderboard once this commits; the recipes they rated are re-ranked by removeRatingsByUser
+        recipeIds.forEach(recipeId -> {
+            recipeSuggestService.remove(recipeId);
+            topRatedLeaderboard.remove(recipeId);
+        });
+        // Their recipes go with them by cascade; the recipes they rated or commented on were
+        // evicted by the counter updates above
+        entityCacheService.evictUser(idToDelete);
+        // Their recipes leave their followers' feeds
+        catalogVersion.timelinesChanged();
+    }
+
+    /**
+     * Changes a user's role (e.g. promote a USER to COOK).
+     * Evicts the cached principal once this commits, so the new authorities apply on the next request.
+     */
+    @Transactional
+    public User updateRole(Long id, User.Role role, User adminUser) {
+        if (id.equals(adminUser.getId())) {
+            throw new RuntimeException("Admin user cannot change their own role.");
+        }
+        User user = getUserById(id);
+        user.setRole(role);
+        User saved = userRepository.save(user);
+        principalCache.invalidate(saved.getUsername());
+        return saved;
     }
 
     /**
@@ -0,0 +1,138 @@
+package com.recipeplatform.controller;
+
+import com.recipeplatform.service.MediaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class MediaControllerTest {
+
+    private static final String HASH = "ab".repeat(32);
+
+    private static final byte[] BYTES = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @Mock
+    private MediaService mediaService;
+
+    @InjectMocks
+    private MediaController mediaController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.standaloneSetup(mediaController).build();
+        MediaService.Blob blob = new MediaService.Blob("originals/ab/" + HASH, "video/mp4", BYTES.length, HASH, true);
+        lenient().when(mediaService.original(HASH)).thenReturn(Optional.of(blob));
+        lenient().when(mediaService.localFile(any())).thenReturn(Optional.empty());
+        lenient().when(mediaService.open(any())).thenAnswer(invocation -> new ByteArrayInputStream(BYTES));
+    }
+
+    @Test
+    public void sendsTheWholeFile() throws Exception {
+        mockMvc.perform(get("/api/media/" + HASH))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().bytes(BYTES));
+    }
+
+    @Test
+    public void sendsASingleRangeAsPartialContent() throws Exception {
+        mockMvc.perform(get("/api/media/" + HASH).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().string("2345"));
+
+        mockMvc.perform(get("/api/media/" + HASH).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-9/10"))
+                .andExpect(content().string("789"));
+    }
+
+    @Test
+    public void rangePastTheEndIsNotSatisfiable() throws Exception {
+        mockMvc.perform(get("/api/media/" + HASH).header(HttpHeaders.RANGE, "bytes=10-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+
+        verify(mediaService, never()).open(any());
+    }
+
+    @Test
+    public void malformedOrMultipleRangesGetTheWholeFile() throws Exception {
+        mockMvc.perform(get("/api/media/" + HASH).header(HttpHeaders.RANGE, "bytes=oops"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(BYTES));
+
+        mockMvc.perform(get("/api/media/" + HASH).header(HttpHeaders.RANGE, "bytes=0-1,4-5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(BYTES));
+    }
+
+    @Test
+    public void rangeIsOnlyServedWhenIfRangeMatchesTheFile() throws Exception {
+        mockMvc.perform(get("/api/media/" + HASH)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"" + HASH + "\""))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("2345"));
+
+        mockMvc.perform(get("/api/media/" + HASH)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"some-other-version\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(BYTES));
+    }
+
+    @Test
+    public void headSendsTheHeadersWithoutTheBody() throws Exception {
+        mockMvc.perform(head("/api/media/" + HASH).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().bytes(new byte[0]));
+
+        verify(mediaService, never()).open(any());
+    }
+
+    @Test
+    public void matchingETagIsNotModified() throws Exception {
+        mockMvc.perform(get("/api/media/" + HASH).header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    public void unknownHashIsNotFound() throws Exception {
+        when(mediaService.original("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/media/missing"))
+                .andExpect(status().isNotFound());
+    }
+}
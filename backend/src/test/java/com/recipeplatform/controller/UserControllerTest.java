@@ -0,0 +1,69 @@
+package com.recipeplatform.controller;
+
+import com.recipeplatform.model.User;
+import com.recipeplatform.service.RecipeService;
+import com.recipeplatform.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class UserControllerTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private RecipeService recipeService;
+
+    @InjectMocks
+    private UserController userController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+    }
+
+    @Test
+    public void updatesTheRole() throws Exception {
+        User cook = new User();
+        cook.setId(5L);
+        cook.setUsername("cook");
+        cook.setRole(User.Role.COOK);
+        when(userService.updateRole(eq(5L), eq(User.Role.COOK), any())).thenReturn(cook);
+
+        mockMvc.perform(put("/api/users/5/role").contentType(MediaType.APPLICATION_JSON).content("{\"role\": \"COOK\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void rejectsAMissingOrNullRole() throws Exception {
+        mockMvc.perform(put("/api/users/5/role").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/users/5/role").contentType(MediaType.APPLICATION_JSON).content("{\"role\": null}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/users/5/role").contentType(MediaType.APPLICATION_JSON).content("{\"role\": \"CHEF\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).updateRole(any(), any(), any());
+    }
+}
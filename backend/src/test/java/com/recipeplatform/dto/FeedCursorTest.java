@@ -0,0 +1,57 @@
+package com.recipeplatform.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FeedCursorTest {
+
+    @Test
+    public void decodesWhatItEncoded() {
+        FeedCursor cursor = new FeedCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000), 4711L);
+
+        String encoded = cursor.encode();
+
+        assertFalse(encoded.contains("="), "cursors are sent unpadded");
+        assertEquals(cursor, FeedCursor.decode(encoded));
+    }
+
+    @Test
+    public void survivesWholeSecondsAndLargeIds() {
+        FeedCursor cursor = new FeedCursor(LocalDateTime.of(2024, 1, 1, 0, 0), Long.MAX_VALUE);
+
+        assertEquals(cursor, FeedCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    public void rejectsGarbage() {
+        assertInvalid("not a cursor!");
+        assertInvalid("");
+    }
+
+    @Test
+    public void rejectsTamperedCursors() {
+        assertInvalid(encode("2024-03-01T12:30:15|abc"));
+        assertInvalid(encode("yesterday|42"));
+        assertInvalid(encode("2024-03-01T12:30:15"));
+        assertInvalid(encode("2024-03-01T12:30:15|42; DROP TABLE recipes"));
+
+        String valid = new FeedCursor(LocalDateTime.of(2024, 3, 1, 12, 30), 42L).encode();
+        assertInvalid(valid.substring(0, valid.length() - 3));
+    }
+
+    private static void assertInvalid(String cursor) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode(cursor));
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
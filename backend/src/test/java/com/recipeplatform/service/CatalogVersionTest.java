@@ -0,0 +1,84 @@
+package com.recipeplatform.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogVersionTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private FollowGraph followGraph;
+
+    @InjectMocks
+    private CatalogVersion catalogVersion;
+
+    @Test
+    public void aFeedMovesOnlyWithTheCooksItFollows() {
+        when(followGraph.following(1L)).thenReturn(new long[]{10, 11});
+        CatalogVersion.Stamp before = catalogVersion.feed(1L);
+
+        catalogVersion.cookChanged(12L);
+        assertEquals(before, catalogVersion.feed(1L));
+
+        catalogVersion.cookChanged(11L);
+        CatalogVersion.Stamp after = catalogVersion.feed(1L);
+        assertNotEquals(before.etag(), after.etag());
+        assertTrue(after.lastModified() >= before.lastModified());
+    }
+
+    @Test
+    public void aFeedMovesWhenTheViewerFollowsSomeoneElse() {
+        when(followGraph.following(1L)).thenReturn(new long[]{10}, new long[]{10, 12});
+        CatalogVersion.Stamp before = catalogVersion.feed(1L);
+
+        catalogVersion.followsChanged(1L);
+
+        CatalogVersion.Stamp after = catalogVersion.feed(1L);
+        assertNotEquals(before.etag(), after.etag());
+        assertTrue(after.lastModified() >= before.lastModified());
+    }
+
+    @Test
+    public void changesInsideATransactionApplyOnCompletion() {
+        when(followGraph.following(1L)).thenReturn(new long[]{10});
+        CatalogVersion.Stamp before = catalogVersion.feed(1L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            catalogVersion.cookChanged(10L);
+            assertEquals(before, catalogVersion.feed(1L));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertNotEquals(before, catalogVersion.feed(1L));
+    }
+
+    @Test
+    public void publicListsCarryTheViewersFollowings() {
+        CatalogVersion.Stamp board = catalogVersion.board("top", 3, 1000);
+        when(followGraph.following(1L)).thenReturn(new long[]{10}, new long[]{10, 11});
+
+        assertSame(board, catalogVersion.forViewer(board, null));
+        CatalogVersion.Stamp first = catalogVersion.forViewer(board, 1L);
+        CatalogVersion.Stamp second = catalogVersion.forViewer(board, 1L);
+        assertNotEquals(board.etag(), first.etag());
+        assertNotEquals(first.etag(), second.etag());
+    }
+}
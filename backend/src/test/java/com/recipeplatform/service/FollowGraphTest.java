@@ -0,0 +1,152 @@
+package com.recipeplatform.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class FollowGraphTest {
+
+    // (follower, followed) pairs standing in for user_follows
+    private static final List<long[]> TABLE = List.of(new long[]{1, 2}, new long[]{1, 3}, new long[]{4, 2});
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private FollowGraph graph;
+
+    // Runs once, in the middle of the first scan of user_follows
+    private Runnable duringLoad = () -> {};
+
+    @BeforeEach
+    public void streamTable() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doAnswer(invocation -> {
+            boolean byFollower = sqlOf(invocation.getArgument(0)).startsWith("SELECT follower_id");
+            RowCallbackHandler handler = invocation.getArgument(1);
+            List<long[]> rows = TABLE.stream()
+                    .map(edge -> byFollower ? edge : new long[]{edge[1], edge[0]})
+                    .sorted(Comparator.<long[]>comparingLong(row -> row[0]).thenComparingLong(row -> row[1]))
+                    .toList();
+            for (int i = 0; i < rows.size(); i++) {
+                handler.processRow(resultSet(rows.get(i)));
+                if (i == 0) {
+                    Runnable action = duringLoad;
+                    duringLoad = () -> {};
+                    action.run();
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @AfterEach
+    public void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void loadsBothDirections() {
+        graph.load();
+
+        assertArrayEquals(new long[]{2, 3}, graph.following(1));
+        assertArrayEquals(new long[]{1, 4}, graph.followers(2));
+        assertArrayEquals(new long[]{1, 4}, graph.followerIds());
+        assertTrue(graph.isFollowing(4, 2));
+        assertFalse(graph.isFollowing(2, 4));
+    }
+
+    @Test
+    public void changesCommittedDuringLoadAreNotLost() {
+        duringLoad = () -> {
+            graph.onFollow(5L, 2L);
+            // The followers scan that runs next still returns this edge
+            graph.onUnfollow(1L, 3L);
+        };
+
+        graph.load();
+
+        assertTrue(graph.isFollowing(5, 2));
+        assertFalse(graph.isFollowing(1, 3));
+        assertArrayEquals(new long[]{2}, graph.following(1));
+        assertArrayEquals(new long[]{1, 4, 5}, graph.followers(2));
+        assertArrayEquals(new long[0], graph.followers(3));
+    }
+
+    @Test
+    public void aFollowInsideATransactionAppliesOnCommit() {
+        graph.load();
+        TransactionSynchronizationManager.initSynchronization();
+
+        graph.onFollow(2L, 4L);
+        assertFalse(graph.isFollowing(2, 4));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(graph.isMutual(2, 4));
+        assertArrayEquals(new long[]{2}, graph.mutuals(4));
+    }
+
+    @Test
+    public void aFailedLoadKeepsTheCurrentGraph() {
+        graph.load();
+        doThrow(new IllegalStateException("connection lost"))
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        assertThrows(IllegalStateException.class, graph::load);
+        graph.onFollow(5L, 1L);
+
+        assertArrayEquals(new long[]{2, 3}, graph.following(1));
+        assertArrayEquals(new long[]{1}, graph.following(5));
+    }
+
+    private static String sqlOf(PreparedStatementCreator creator) throws SQLException {
+        Connection connection = mock(Connection.class);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        when(connection.prepareStatement(sql.capture())).thenReturn(mock(PreparedStatement.class));
+        creator.createPreparedStatement(connection);
+        return sql.getValue();
+    }
+
+    private static ResultSet resultSet(long[] row) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(row[0]);
+        when(rs.getLong(2)).thenReturn(row[1]);
+        return rs;
+    }
+}
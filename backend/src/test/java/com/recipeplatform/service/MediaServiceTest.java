@@ -0,0 +1,134 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.model.MediaAsset;
+import com.recipeplatform.model.User;
+import com.recipeplatform.repository.MediaAssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MediaServiceTest {
+
+    private static final byte[] PHOTO = "not really a jpeg".getBytes(StandardCharsets.US_ASCII);
+
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private MediaAssetRepository mediaAssetRepository;
+
+    @Mock
+    private MediaThumbnailer mediaThumbnailer;
+
+    @InjectMocks
+    private MediaService mediaService;
+
+    private final User cook = new User();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(mediaService, "maxImageSize", DataSize.ofBytes(PHOTO.length));
+        ReflectionTestUtils.setField(mediaService, "maxVideoSize", DataSize.ofBytes(1000));
+        // Reads the upload to its end, as a real store would
+        lenient().when(blobStore.write(anyString(), any())).thenAnswer(invocation ->
+                (long) invocation.getArgument(1, InputStream.class).readAllBytes().length);
+    }
+
+    @Test
+    public void storesANewFileUnderItsHash() throws Exception {
+        String hash = sha256(PHOTO);
+        when(mediaAssetRepository.findById(hash)).thenReturn(Optional.empty());
+        when(mediaAssetRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MediaAsset asset = mediaService.store(cook, "image/JPEG; charset=binary", new ByteArrayInputStream(PHOTO));
+
+        assertEquals(hash, asset.getHash());
+        assertEquals("image/jpeg", asset.getContentType());
+        assertEquals(PHOTO.length, asset.getSize());
+        ArgumentCaptor<String> staging = ArgumentCaptor.forClass(String.class);
+        verify(blobStore).move(staging.capture(), any());
+        verify(blobStore).move(staging.getValue(), MediaService.originalKey(hash));
+        verify(blobStore).delete(staging.getValue());
+        verify(mediaThumbnailer).submit(hash);
+    }
+
+    @Test
+    public void aFileAlreadyStoredIsNotStoredAgain() throws Exception {
+        String hash = sha256(PHOTO);
+        MediaAsset existing = new MediaAsset(hash, "image/jpeg", PHOTO.length, MediaAsset.Kind.IMAGE, cook);
+        when(mediaAssetRepository.findById(hash)).thenReturn(Optional.of(existing));
+
+        MediaAsset asset = mediaService.store(cook, "image/jpeg", new ByteArrayInputStream(PHOTO));
+
+        assertSame(existing, asset);
+        verify(blobStore, never()).move(any(), any());
+        verify(mediaAssetRepository, never()).save(any());
+        verify(mediaThumbnailer, never()).submit(any());
+        // The staged copy is cleaned up
+        verify(blobStore).delete(any());
+    }
+
+    @Test
+    public void uploadOverTheLimitFailsAndLeavesNothingBehind() throws Exception {
+        byte[] tooBig = new byte[PHOTO.length + 1];
+
+        assertThrows(MaxUploadSizeExceededException.class,
+                () -> mediaService.store(cook, "image/png", new ByteArrayInputStream(tooBig)));
+
+        verify(blobStore).delete(any());
+        verify(blobStore, never()).move(any(), any());
+        verify(mediaAssetRepository, never()).save(any());
+    }
+
+    @Test
+    public void videosHaveTheirOwnLimitAndNoThumbnails() throws Exception {
+        byte[] clip = new byte[1000];
+        String hash = sha256(clip);
+        when(mediaAssetRepository.findById(hash)).thenReturn(Optional.empty());
+        when(mediaAssetRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MediaAsset asset = mediaService.store(cook, "video/mp4", new ByteArrayInputStream(clip));
+
+        assertEquals(MediaAsset.Kind.VIDEO, asset.getKind());
+        verify(mediaThumbnailer, never()).submit(any());
+        assertThrows(MaxUploadSizeExceededException.class,
+                () -> mediaService.store(cook, "video/mp4", new ByteArrayInputStream(new byte[1001])));
+    }
+
+    @Test
+    public void unsupportedTypeIsRejectedBeforeReading() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> mediaService.store(cook, "application/pdf", new ByteArrayInputStream(PHOTO)));
+
+        verify(blobStore, never()).write(any(), any());
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -0,0 +1,212 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.NotificationItem;
+import com.recipeplatform.model.Notification;
+import com.recipeplatform.model.NotificationEvent;
+import com.recipeplatform.repository.NotificationEventRepository;
+import com.recipeplatform.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationDispatcherTest {
+
+    private static final long BACKOFF_MS = 60_000;
+
+    @Mock
+    private NotificationEventRepository notificationEventRepository;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<MailSender> mailSenders;
+
+    @InjectMocks
+    private NotificationDispatcher dispatcher;
+
+    private final StubMailSender mailSender = new StubMailSender();
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(mailSenders.getIfAvailable()).thenReturn(mailSender);
+        ReflectionTestUtils.setField(dispatcher, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(dispatcher, "enabled", true);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 8);
+        ReflectionTestUtils.setField(dispatcher, "retryBackoffMs", BACKOFF_MS);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 21_600_000L);
+        ReflectionTestUtils.setField(dispatcher, "from", "no-reply@localhost");
+        ReflectionTestUtils.setField(dispatcher, "siteUrl", "http://localhost:3000");
+        dispatcher.start();
+    }
+
+    @Test
+    public void sendsOneDigestPerRecipient() {
+        due(List.of(1L),
+                posted(10L, 1L, "ann", 0),
+                item(11L, 1L, NotificationEvent.Type.NEW_FOLLOWER, "bob", null, null, 0),
+                posted(12L, 1L, "ann", 0));
+
+        assertEquals(1, dispatcher.deliverDue());
+
+        assertEquals(1, mailSender.sent.size());
+        SimpleMailMessage digest = mailSender.sent.get(0);
+        assertEquals("user1@example.com", digest.getTo()[0]);
+        assertEquals("3 new updates on Recipe Platform", digest.getSubject());
+        assertTrue(digest.getText().contains("bob started following you"));
+        assertTrue(digest.getText().contains("http://localhost:3000/recipe/100"));
+        verify(notificationRepository).deleteAllByIdInBatch(List.of(10L, 11L, 12L));
+        verify(notificationRepository, never()).markAttemptFailed(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    public void failedDigestsAreRescheduledAndTheRestDeleted() {
+        // 1 is sent, 2 is refused by the server, 3 is only about a deleted recipe, 4 was deleted
+        due(List.of(1L, 2L, 3L, 4L),
+                posted(10L, 1L, "ann", 0),
+                posted(20L, 2L, "ann", 2),
+                posted(21L, 2L, "cat", 1),
+                item(30L, 3L, NotificationEvent.Type.RECIPE_POSTED, "ann", 100L, null, 0));
+        mailSender.refused.add("user2@example.com");
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(4, dispatcher.deliverDue());
+        LocalDateTime after = LocalDateTime.now();
+
+        assertEquals(List.of("user1@example.com", "user2@example.com"), mailSender.recipients());
+        verify(notificationRepository).deleteByRecipients(List.of(4L), Notification.Status.PENDING);
+        verify(notificationRepository).deleteAllByIdInBatch(List.of(30L, 10L));
+
+        // Third attempt for the digest (its most-tried row had two): backoff doubled twice
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(notificationRepository).markAttemptFailed(eq(List.of(20L, 21L)), retryAt.capture(),
+                eq(8), eq(Notification.Status.FAILED));
+        Duration backoff = Duration.ofMillis(4 * BACKOFF_MS);
+        assertFalse(retryAt.getValue().isBefore(before.plus(backoff)));
+        assertFalse(retryAt.getValue().isAfter(after.plus(backoff)));
+    }
+
+    @Test
+    public void unreachableServerReschedulesEveryDigest() {
+        due(List.of(1L, 2L), posted(10L, 1L, "ann", 0), posted(20L, 2L, "ann", 0));
+        mailSender.down = true;
+
+        dispatcher.deliverDue();
+
+        verify(notificationRepository).markAttemptFailed(eq(List.of(10L)), any(), eq(8), eq(Notification.Status.FAILED));
+        verify(notificationRepository).markAttemptFailed(eq(List.of(20L)), any(), eq(8), eq(Notification.Status.FAILED));
+        verify(notificationRepository).deleteAllByIdInBatch(List.of());
+    }
+
+    @Test
+    public void lastAttemptIsHandedOverToBeMarkedFailedWithACappedBackoff() {
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 5 * BACKOFF_MS);
+        due(List.of(1L), posted(10L, 1L, "ann", 7));
+        mailSender.refused.add("user1@example.com");
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.deliverDue();
+
+        // attempts + 1 reaches maxAttempts, so the update flips the rows to FAILED instead of PENDING
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(notificationRepository).markAttemptFailed(eq(List.of(10L)), retryAt.capture(),
+                eq(8), eq(Notification.Status.FAILED));
+        assertFalse(retryAt.getValue().isAfter(LocalDateTime.now().plus(Duration.ofMillis(5 * BACKOFF_MS))));
+        assertFalse(retryAt.getValue().isBefore(before.plus(Duration.ofMillis(5 * BACKOFF_MS))));
+        verify(notificationRepository).deleteAllByIdInBatch(List.of());
+    }
+
+    @Test
+    public void nothingDueSendsNothing() {
+        when(notificationRepository.findDueRecipients(eq(Notification.Status.PENDING), any(), any()))
+                .thenReturn(List.of());
+
+        assertEquals(0, dispatcher.deliverDue());
+        assertTrue(mailSender.sent.isEmpty());
+    }
+
+    private void due(List<Long> recipients, NotificationItem... items) {
+        when(notificationRepository.findDueRecipients(eq(Notification.Status.PENDING), any(), any()))
+                .thenReturn(recipients);
+        when(notificationRepository.findItems(recipients, Notification.Status.PENDING)).thenReturn(List.of(items));
+    }
+
+    private static NotificationItem posted(Long id, Long recipientId, String cook, int attempts) {
+        return item(id, recipientId, NotificationEvent.Type.RECIPE_POSTED, cook, 100L, "Soup", attempts);
+    }
+
+    private static NotificationItem item(Long id, Long recipientId, NotificationEvent.Type type, String actorName,
+                                         Long recipeId, String recipeTitle, int attempts) {
+        return new NotificationItem(id, recipientId, "user" + recipientId + "@example.com", "user" + recipientId,
+                type, actorName, recipeId, recipeTitle, attempts);
+    }
+
+    // Accepts every message except those to refused addresses, like an SMTP server rejecting recipients
+    private static class StubMailSender implements MailSender {
+
+        final List<SimpleMailMessage> sent = new ArrayList<>();
+
+        final Set<String> refused = new HashSet<>();
+
+        boolean down;
+
+        @Override
+        public void send(SimpleMailMessage... messages) {
+            if (down) {
+                throw new MailSendException("Connection refused");
+            }
+            Map<Object, Exception> failed = new LinkedHashMap<>();
+            for (SimpleMailMessage message : messages) {
+                sent.add(message);
+                if (refused.contains(message.getTo()[0])) {
+                    failed.put(message, new IllegalStateException("550 mailbox unavailable"));
+                }
+            }
+            if (!failed.isEmpty()) {
+                throw new MailSendException(failed);
+            }
+        }
+
+        List<String> recipients() {
+            return sent.stream().map(message -> message.getTo()[0]).toList();
+        }
+    }
+}
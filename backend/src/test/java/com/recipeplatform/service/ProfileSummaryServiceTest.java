@@ -0,0 +1,194 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.ProfileComment;
+import com.recipeplatform.dto.ProfileRating;
+import com.recipeplatform.dto.ProfileSummary;
+import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.model.Recipe;
+import com.recipeplatform.repository.CommentRepository;
+import com.recipeplatform.repository.RatingRepository;
+import com.recipeplatform.repository.RecipeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProfileSummaryServiceTest {
+
+    private static final Long USER = 7L;
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private RatingRepository ratingRepository;
+
+    @Mock
+    private RatingIngestionQueue ratingIngestionQueue;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ProfileSummaryService service;
+
+    private final RecipeDto recipe = new RecipeDto(2L, "Soup", null, null, Recipe.Category.VEGAN, "cook", null);
+
+    private final ProfileComment comment = new ProfileComment(1L, "Lovely", LocalDateTime.now(), 2L, "Soup");
+
+    private final ProfileRating rating = new ProfileRating(3L, 5, LocalDateTime.now(), 2L, "Soup");
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(recipeRepository.findMyRecipes(eq(USER), any())).thenReturn(List.of(recipe));
+        lenient().when(recipeRepository.countByUserId(USER)).thenReturn(1L);
+        lenient().when(commentRepository.findProfilePage(eq(USER), any())).thenReturn(List.of(comment));
+        lenient().when(commentRepository.countByUserId(USER)).thenReturn(1L);
+        lenient().when(ratingRepository.findProfilePage(eq(USER), any())).thenReturn(List.of(rating));
+        lenient().when(ratingRepository.findTotalsByUserId(USER)).thenReturn(List.<Object[]>of(new Object[]{1L, 5.0}));
+        ReflectionTestUtils.setField(service, "threads", 3);
+        ReflectionTestUtils.setField(service, "queueCapacity", 10);
+        ReflectionTestUtils.setField(service, "sectionTimeoutMillis", 300L);
+        ReflectionTestUtils.setField(service, "maxPageSize", 50);
+    }
+
+    @AfterEach
+    public void stopPool() {
+        service.stop();
+    }
+
+    @Test
+    public void loadsEverySection() {
+        service.start();
+
+        ProfileSummary summary = service.getSummary(USER, 10, 0, 0, 0);
+
+        assertEquals(List.of(recipe), summary.recipes().items());
+        assertEquals(List.of(comment), summary.comments().items());
+        assertEquals(List.of(rating), summary.ratings().items());
+        assertEquals(5.0, summary.averageRating());
+        assertFalse(summary.recipes().timedOut() || summary.comments().timedOut() || summary.ratings().timedOut());
+        // Queued votes are written before the ratings are read
+        verify(ratingIngestionQueue).awaitWritten(USER);
+    }
+
+    @Test
+    public void onlyTheSlowSectionTimesOut() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(commentRepository.findProfilePage(eq(USER), any())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return List.of(comment);
+        });
+        service.start();
+
+        long started = System.nanoTime();
+        ProfileSummary summary = service.getSummary(USER, 10, 0, 2, 0);
+        long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertTrue(summary.comments().timedOut());
+        assertTrue(summary.comments().items().isEmpty());
+        assertEquals(2, summary.comments().page());
+        assertEquals(List.of(recipe), summary.recipes().items());
+        assertFalse(summary.recipes().timedOut());
+        assertEquals(List.of(rating), summary.ratings().items());
+        assertEquals(5.0, summary.averageRating());
+        assertTrue(tookMillis < 5_000, "waited " + tookMillis + " ms");
+        // The abandoned section is cancelled, so it doesn't keep its thread and connection
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void statementTimeoutCountsAsTimedOut() {
+        when(ratingRepository.findProfilePage(eq(USER), any())).thenThrow(new QueryTimeoutException("canceling statement"));
+        service.start();
+
+        ProfileSummary summary = service.getSummary(USER, 10, 0, 0, 0);
+
+        assertTrue(summary.ratings().timedOut());
+        assertNull(summary.averageRating());
+        assertFalse(summary.recipes().timedOut());
+        assertFalse(summary.comments().timedOut());
+    }
+
+    @Test
+    public void otherSectionErrorsFailTheRequest() {
+        IllegalStateException failure = new IllegalStateException("broken");
+        when(recipeRepository.findMyRecipes(eq(USER), any())).thenThrow(failure);
+        service.start();
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> service.getSummary(USER, 10, 0, 0, 0)));
+    }
+
+    @Test
+    public void requestThreadLoadsTheSectionWhenThePoolIsFull() throws Exception {
+        // One thread, busy with the recipes until the ratings have started; the comments fill the queue
+        ReflectionTestUtils.setField(service, "threads", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 1);
+        ReflectionTestUtils.setField(service, "sectionTimeoutMillis", 5_000L);
+        CountDownLatch ratingsStarted = new CountDownLatch(1);
+        Map<String, Thread> ranOn = new ConcurrentHashMap<>();
+        when(recipeRepository.findMyRecipes(eq(USER), any())).thenAnswer(invocation -> {
+            ranOn.put("recipes", Thread.currentThread());
+            ratingsStarted.await(5, TimeUnit.SECONDS);
+            return List.of(recipe);
+        });
+        when(ratingRepository.findProfilePage(eq(USER), any())).thenAnswer(invocation -> {
+            ranOn.put("ratings", Thread.currentThread());
+            ratingsStarted.countDown();
+            return List.of(rating);
+        });
+        service.start();
+
+        ProfileSummary summary = service.getSummary(USER, 10, 0, 0, 0);
+
+        assertSame(Thread.currentThread(), ranOn.get("ratings"));
+        assertNotEquals(Thread.currentThread(), ranOn.get("recipes"));
+        assertEquals(List.of(recipe), summary.recipes().items());
+        assertEquals(List.of(comment), summary.comments().items());
+        assertEquals(List.of(rating), summary.ratings().items());
+    }
+
+    @Test
+    public void pageSizeIsClamped() {
+        service.start();
+
+        assertEquals(50, service.getSummary(USER, 1_000, 0, 0, 0).recipes().size());
+        assertEquals(1, service.getSummary(USER, -5, -1, 0, 0).recipes().size());
+    }
+}
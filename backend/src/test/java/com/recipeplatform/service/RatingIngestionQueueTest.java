@@ -0,0 +1,191 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.PendingRating;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RatingIngestionQueueTest {
+
+    // Above the Long cache (-128..127): a boxed copy is a different object, as with a request's principal
+    private static final Long ALICE = 151L;
+    private static final Long BOB = 152L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TopRatedLeaderboard topRatedLeaderboard;
+
+    @Mock
+    private EntityCacheService entityCacheService;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private CookRecommender cookRecommender;
+
+    @InjectMocks
+    private RatingIngestionQueue queue;
+
+    // {score, userId, recipeId} of every vote sent to the ratings upsert
+    private final List<Object[]> upserted = new ArrayList<>();
+
+    // Runs once, while the first upsert is being written
+    private Runnable duringWrite = () -> {};
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(queue, "capacity", 100);
+        ReflectionTestUtils.setField(queue, "batchSize", 50);
+        queue.start();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            if (invocation.<String>getArgument(0).startsWith("INSERT INTO ratings")) {
+                args.forEach(row -> upserted.add(new Object[]{row[0], row[2], row[3]}));
+                Runnable action = duringWrite;
+                duringWrite = () -> {};
+                action.run();
+            }
+            int[] counts = new int[args.size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+    }
+
+    @AfterEach
+    public void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    public void coalescesRepeatedVotesOnTheSameRecipe() {
+        queue.submit(10L, ALICE, 3);
+        queue.submit(10L, ALICE, 5);
+        queue.submit(11L, ALICE, 4);
+        queue.submit(10L, BOB, 2);
+
+        assertEquals(3, queue.getPendingCount());
+        assertEquals(3, queue.flush());
+
+        assertEquals(0, queue.getPendingCount());
+        // Written in (recipe, user) order, the order rows are locked in
+        assertEquals(List.of(List.of(5, ALICE, 10L), List.of(2, BOB, 10L), List.of(4, ALICE, 11L)), rows(upserted));
+        verify(topRatedLeaderboard).refresh(10L);
+        verify(topRatedLeaderboard).refresh(11L);
+    }
+
+    @Test
+    public void readYourWriteInsideACallersReadOnlyTransaction() {
+        queue.submit(10L, ALICE, 4);
+        queue.submit(12L, ALICE, 1);
+        queue.submit(10L, BOB, 2);
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        queue.awaitWritten(Long.valueOf(ALICE.longValue()));
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+        assertFalse(definition.getValue().isReadOnly());
+        verify(transactionManager).commit(any());
+
+        // Only the reader's own votes are written; the rest is left to the scheduled flush
+        assertEquals(List.of(List.of(4, ALICE, 10L), List.of(1, ALICE, 12L)), rows(upserted));
+        assertEquals(1, queue.getPendingCount());
+        verify(cookRecommender, never()).userChanged(BOB);
+    }
+
+    @Test
+    public void awaitWrittenForOneRecipeWritesOnlyThatVote() {
+        queue.submit(10L, ALICE, 4);
+        queue.submit(12L, ALICE, 1);
+
+        queue.awaitWritten(12L, ALICE);
+        queue.awaitWritten(13L, ALICE);
+
+        assertEquals(List.of(List.of(1, ALICE, 12L)), rows(upserted));
+        assertEquals(1, queue.getPendingCount());
+    }
+
+    @Test
+    public void aVoteChangedDuringTheWriteStaysQueued() {
+        queue.submit(10L, ALICE, 4);
+        duringWrite = () -> queue.submit(10L, ALICE, 2);
+
+        queue.flush();
+
+        assertEquals(1, queue.getPendingCount());
+        queue.flush();
+        assertEquals(List.of(List.of(4, ALICE, 10L), List.of(2, ALICE, 10L)), rows(upserted));
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    public void aFullQueueIsFlushedByTheSubmitter() {
+        ReflectionTestUtils.setField(queue, "capacity", 2);
+        queue.submit(10L, ALICE, 4);
+        queue.submit(11L, ALICE, 3);
+
+        // Replacing a pending vote needs no room
+        queue.submit(11L, ALICE, 5);
+        assertEquals(2, queue.getPendingCount());
+
+        PendingRating third = queue.submit(12L, BOB, 1);
+        assertEquals(List.of(List.of(4, ALICE, 10L), List.of(5, ALICE, 11L)), rows(upserted));
+        assertEquals(1, queue.getPendingCount());
+        assertEquals(BOB, third.userId());
+    }
+
+    @Test
+    public void discardUserDropsOnlyTheirVotes() {
+        queue.submit(10L, ALICE, 4);
+        queue.submit(10L, BOB, 2);
+
+        queue.discardUser(Long.valueOf(ALICE.longValue()));
+
+        assertEquals(1, queue.getPendingCount());
+        queue.flush();
+        assertEquals(List.of(List.of(2, BOB, 10L)), rows(upserted));
+    }
+
+    private static List<List<Object>> rows(List<Object[]> rows) {
+        return rows.stream().map(Arrays::asList).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.recipeplatform.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.model.Recipe;
+import com.recipeplatform.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RecipeCardStreamerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RecipeCardStreamer streamer;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private boolean inTransaction;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(streamer, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(streamer, "legacyLimit", 600);
+        streamer.start();
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            inTransaction = true;
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(invocation -> inTransaction = false).when(transactionManager).commit(any());
+    }
+
+    @Test
+    public void writesEachChunkAfterItsTransactionEnded() throws Exception {
+        // 500 cards, then the 100 left under the cap, seeking past the last card of the first chunk
+        List<RecipeDto> first = cards(1, 500);
+        RecipeDto last = first.get(first.size() - 1);
+        when(recipeRepository.findDiscoverPage(PageRequest.of(0, 500))).thenReturn(first);
+        when(recipeRepository.findDiscoverPageAfter(eq(last.getCreatedAt()), eq(last.getId()), eq(PageRequest.of(0, 100))))
+                .thenReturn(cards(501, 600));
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] bytes, int offset, int length) {
+                assertFalse(inTransaction, "wrote to the client with a connection held");
+                super.write(bytes, offset, length);
+            }
+        };
+        streamer.writeNewest(body);
+
+        JsonNode cards = objectMapper.readTree(body.toByteArray());
+        assertEquals(600, cards.size());
+        assertEquals(1, cards.get(0).get("id").asLong());
+        assertEquals(600, cards.get(599).get("id").asLong());
+    }
+
+    @Test
+    public void stopsAtAShortChunk() throws Exception {
+        when(recipeRepository.findDiscoverPage(PageRequest.of(0, 500))).thenReturn(cards(1, 3));
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        streamer.writeNewest(body);
+
+        assertEquals(3, objectMapper.readTree(body.toByteArray()).size());
+    }
+
+    // Newest first, ids ascending with age so the list is in (createdAt DESC, id DESC) order
+    private static List<RecipeDto> cards(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> new RecipeDto(id, "Recipe " + id, "", null, Recipe.Category.VEGAN, 1L, "cook",
+                        0L, 0L, START.minusMinutes(id)))
+                .toList();
+    }
+}
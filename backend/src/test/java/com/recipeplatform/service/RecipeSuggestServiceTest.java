@@ -0,0 +1,75 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.RecipeSuggestSource;
+import com.recipeplatform.dto.Suggestion;
+import com.recipeplatform.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RecipeSuggestServiceTest {
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @InjectMocks
+    private RecipeSuggestService suggestService;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(suggestService, "topK", 3);
+        suggestService.start();
+    }
+
+    @Test
+    public void limitIsClampedToOneToTopK() {
+        for (long id = 1; id <= 5; id++) {
+            index(new RecipeSuggestSource(id, "pasta " + id, null, "cook" + id, id));
+        }
+
+        assertEquals(List.of("pasta 5"), texts(suggestService.suggest("pasta", -1)));
+        assertEquals(List.of("pasta 5"), texts(suggestService.suggest("pasta", 0)));
+        assertEquals(List.of("pasta 5", "pasta 4", "pasta 3"), texts(suggestService.suggest("pasta", 1000)));
+    }
+
+    @Test
+    public void changesInsideATransactionWaitForTheCommit() {
+        index(new RecipeSuggestSource(1L, "banana bread", null, "baker", 0));
+        when(recipeRepository.findSuggestSource(2L))
+                .thenReturn(Optional.of(new RecipeSuggestSource(2L, "bagels", null, "baker", 0)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            suggestService.refresh(2L);
+            suggestService.remove(1L);
+            // Nothing changes until the commit, so a rollback leaves no phantom suggestion
+            assertEquals(List.of("baker", "banana bread"), texts(suggestService.suggest("ba", 10)));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(List.of("bagels", "baker"), texts(suggestService.suggest("ba", 10)));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void index(RecipeSuggestSource source) {
+        when(recipeRepository.findSuggestSource(source.id())).thenReturn(Optional.of(source));
+        suggestService.refresh(source.id());
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.recipeplatform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SuggestTrieTest {
+
+    @Test
+    public void findsTermsByPrefixHighestWeightFirst() {
+        SuggestTrie trie = new SuggestTrie(10);
+        trie.insert(term("pasta", 3));
+        trie.insert(term("pancakes", 7));
+        trie.insert(term("paneer tikka", 5));
+        trie.insert(term("soup", 9));
+
+        assertEquals(List.of("pancakes", "paneer tikka", "pasta"), texts(trie.lookup("pa", 10)));
+        assertEquals(List.of("pancakes", "paneer tikka"), texts(trie.lookup("pan", 10)));
+        assertEquals(List.of("soup", "pancakes", "paneer tikka", "pasta"), texts(trie.lookup("", 10)));
+        assertTrue(trie.lookup("pizza", 10).isEmpty());
+    }
+
+    @Test
+    public void equalWeightsAreOrderedByText() {
+        SuggestTrie trie = new SuggestTrie(10);
+        trie.insert(term("bread", 1));
+        trie.insert(term("banana bread", 1));
+        trie.insert(term("bagels", 1));
+
+        assertEquals(List.of("bagels", "banana bread", "bread"), texts(trie.lookup("b", 10)));
+    }
+
+    @Test
+    public void keepsOnlyTheTopKAndHonoursTheLimit() {
+        SuggestTrie trie = new SuggestTrie(2);
+        trie.insert(term("curry", 1));
+        trie.insert(term("cake", 5));
+        trie.insert(term("cookies", 3));
+
+        assertEquals(List.of("cake", "cookies"), texts(trie.lookup("c", 10)));
+        assertEquals(List.of("cake"), texts(trie.lookup("c", 1)));
+        // A narrower prefix still finds what fell out of the wider one
+        assertEquals(List.of("curry"), texts(trie.lookup("cu", 10)));
+    }
+
+    @Test
+    public void matchesLaterWords() {
+        SuggestTrie trie = new SuggestTrie(10);
+        trie.insert(term("chicken curry", 4));
+        trie.insert(term("curry", 2));
+
+        assertEquals(List.of("chicken curry", "curry"), texts(trie.lookup("cur", 10)));
+        assertEquals(List.of("chicken curry"), texts(trie.lookup("chi", 10)));
+    }
+
+    @Test
+    public void indexesAtMostFourWords() {
+        SuggestTrie trie = new SuggestTrie(10);
+        trie.insert(term("slow cooked beef and ale stew", 1));
+
+        assertEquals(1, trie.lookup("and", 10).size());
+        assertTrue(trie.lookup("ale", 10).isEmpty());
+    }
+
+    @Test
+    public void reweighReordersAndRemovePrunes() {
+        SuggestTrie trie = new SuggestTrie(10);
+        SuggestTrie.Term tacos = term("tacos", 1);
+        SuggestTrie.Term tart = term("tart", 2);
+        int emptyNodes = trie.nodeCount();
+        trie.insert(tacos);
+        trie.insert(tart);
+
+        tacos.weight = 5;
+        trie.reweigh(tacos);
+        assertEquals(List.of("tacos", "tart"), texts(trie.lookup("ta", 10)));
+
+        trie.remove(tacos);
+        trie.remove(tart);
+        assertTrue(trie.lookup("t", 10).isEmpty());
+        assertEquals(emptyNodes, trie.nodeCount());
+    }
+
+    @Test
+    public void normalizesCaseAndWhitespace() {
+        assertEquals("chicken curry", SuggestTrie.normalize("  Chicken \t CURRY "));
+        assertEquals("", SuggestTrie.normalize(null));
+    }
+
+    private static SuggestTrie.Term term(String text, long weight) {
+        SuggestTrie.Term term = new SuggestTrie.Term(text, "recipe");
+        term.weight = weight;
+        return term;
+    }
+
+    private static List<String> texts(List<SuggestTrie.Term> terms) {
+        return terms.stream().map(term -> term.text).toList();
+    }
+}
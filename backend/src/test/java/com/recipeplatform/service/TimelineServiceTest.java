@@ -0,0 +1,47 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.repository.TimelineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class TimelineServiceTest {
+
+    @Mock
+    private TimelineRepository timelineRepository;
+
+    @InjectMocks
+    private TimelineService timelineService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(timelineService, "celebrityThreshold", 1000L);
+        ReflectionTestUtils.setField(timelineService, "maxEntries", 500);
+    }
+
+    @Test
+    void unfollowThatDropsACookToThePushSideBackfillsTheirFollowers() {
+        timelineService.onUnfollow(1L, 7L, 1000);
+
+        verify(timelineRepository).deleteByUserIdAndAuthorId(1L, 7L);
+        verify(timelineRepository).backfillFollowers(7L, 500);
+    }
+
+    @Test
+    void unfollowThatStaysOnEitherSideDoesNotBackfill() {
+        timelineService.onUnfollow(1L, 7L, 1001);
+        timelineService.onUnfollow(1L, 7L, 999);
+
+        verify(timelineRepository, never()).backfillFollowers(anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,170 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.dto.RecipeDto;
+import com.recipeplatform.model.Recipe;
+import com.recipeplatform.repository.RecipeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TopRatedLeaderboardTest {
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
+    @InjectMocks
+    private TopRatedLeaderboard leaderboard;
+
+    @BeforeEach
+    public void configure() {
+        ReflectionTestUtils.setField(leaderboard, "size", 3);
+        ReflectionTestUtils.setField(leaderboard, "minVotes", 5.0);
+    }
+
+    @AfterEach
+    public void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void ranksByBayesianAverage() {
+        // Global mean 4.0: one 5-star vote (4.17) ranks below a hundred votes averaging 4.6 (4.57)
+        RecipeDto oneVote = card(1L, Recipe.Category.VEGAN, 5, 1);
+        RecipeDto popular = card(2L, Recipe.Category.VEGAN, 460, 100);
+        RecipeDto mediocre = card(3L, Recipe.Category.VEGETARIAN, 30, 10);
+        rebuild(40, 10, List.of(oneVote, mediocre, popular));
+
+        assertEquals(List.of(2L, 1L, 3L), ids(leaderboard.getTopRated(null, 0, 10)));
+        assertEquals(List.of(3L), ids(leaderboard.getTopRated(null, 1, 2)));
+        assertTrue(leaderboard.getTopRated(null, 5, 2).isEmpty());
+    }
+
+    @Test
+    public void servesAtMostSizeEntries() {
+        rebuild(0, 0, List.of(card(1L, null, 10, 2), card(2L, null, 20, 4), card(3L, null, 30, 6), card(4L, null, 40, 8)));
+
+        assertEquals(List.of(4L, 3L, 2L), ids(leaderboard.getTopRated(null, 0, 10)));
+    }
+
+    @Test
+    public void recipeWithoutCategoryIsOnlyOnTheOverallBoard() {
+        rebuild(0, 0, List.of());
+        when(recipeRepository.findRecipeCard(7L)).thenReturn(Optional.of(card(7L, null, 9, 2)));
+
+        leaderboard.refresh(7L);
+
+        assertEquals(List.of(7L), ids(leaderboard.getTopRated(null, 0, 10)));
+        for (Recipe.Category category : Recipe.Category.values()) {
+            assertTrue(leaderboard.getTopRated(category, 0, 10).isEmpty());
+        }
+    }
+
+    @Test
+    public void refreshMovesARecipeToItsNewCategory() {
+        rebuild(0, 0, List.of());
+        when(recipeRepository.findRecipeCard(7L))
+                .thenReturn(Optional.of(card(7L, Recipe.Category.VEGAN, 9, 2)))
+                .thenReturn(Optional.of(card(7L, Recipe.Category.VEGETARIAN, 9, 2)));
+
+        leaderboard.refresh(7L);
+        leaderboard.refresh(7L);
+
+        assertTrue(leaderboard.getTopRated(Recipe.Category.VEGAN, 0, 10).isEmpty());
+        assertEquals(List.of(7L), ids(leaderboard.getTopRated(Recipe.Category.VEGETARIAN, 0, 10)));
+    }
+
+    @Test
+    public void changesInsideATransactionWaitForTheCommit() {
+        rebuild(0, 0, List.of(card(1L, Recipe.Category.VEGAN, 10, 2)));
+        when(recipeRepository.findRecipeCard(2L)).thenReturn(Optional.of(card(2L, Recipe.Category.VEGAN, 25, 5)));
+        TransactionSynchronizationManager.initSynchronization();
+
+        leaderboard.refresh(2L);
+        leaderboard.remove(1L);
+
+        verify(recipeRepository, never()).findRecipeCard(anyLong());
+        assertEquals(List.of(1L), ids(leaderboard.getTopRated(null, 0, 10)));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(List.of(2L), ids(leaderboard.getTopRated(null, 0, 10)));
+        assertEquals(List.of(2L), ids(leaderboard.getTopRated(Recipe.Category.VEGAN, 0, 10)));
+    }
+
+    @Test
+    public void versionMovesOnlyWhenTheServedCardsChange() {
+        ReflectionTestUtils.setField(leaderboard, "size", 1);
+        rebuild(0, 0, List.of(card(1L, Recipe.Category.VEGAN, 50, 10), card(2L, Recipe.Category.VEGAN, 10, 10)));
+        String overall = leaderboard.getVersion(null).etag();
+        String vegan = leaderboard.getVersion(Recipe.Category.VEGAN).etag();
+        String vegetarian = leaderboard.getVersion(Recipe.Category.VEGETARIAN).etag();
+
+        // A vote that keeps recipe 2 off the board, and a rebuild reading the same cards again
+        when(recipeRepository.findRecipeCard(2L)).thenReturn(Optional.of(card(2L, Recipe.Category.VEGAN, 12, 11)));
+        leaderboard.refresh(2L);
+        leaderboard.rebuild();
+        assertEquals(overall, leaderboard.getVersion(null).etag());
+        assertEquals(vegan, leaderboard.getVersion(Recipe.Category.VEGAN).etag());
+
+        // A vote on the recipe that is shown
+        when(recipeRepository.findRecipeCard(1L)).thenReturn(Optional.of(card(1L, Recipe.Category.VEGAN, 55, 11)));
+        leaderboard.refresh(1L);
+        assertNotEquals(overall, leaderboard.getVersion(null).etag());
+        assertNotEquals(vegan, leaderboard.getVersion(Recipe.Category.VEGAN).etag());
+        assertEquals(vegetarian, leaderboard.getVersion(Recipe.Category.VEGETARIAN).etag());
+    }
+
+    @Test
+    public void aFailedRerankLeavesTheBoardsAlone() {
+        rebuild(0, 0, List.of(card(1L, null, 10, 2)));
+        when(recipeRepository.findRecipeCard(2L)).thenThrow(new IllegalStateException("connection lost"));
+
+        leaderboard.refresh(2L);
+
+        assertEquals(List.of(1L), ids(leaderboard.getTopRated(null, 0, 10)));
+    }
+
+    private void rebuild(long ratingSum, long ratingCount, List<RecipeDto> top) {
+        when(recipeRepository.findGlobalRatingTotals()).thenReturn(List.<Object[]>of(new Object[]{ratingSum, ratingCount}));
+        when(recipeRepository.findTopByBayesianScore(anyDouble(), anyDouble(), any())).thenReturn(top);
+        when(recipeRepository.findTopByBayesianScoreInCategory(any(), anyDouble(), anyDouble(), any())).thenAnswer(invocation ->
+                top.stream().filter(card -> card.getCategory() == invocation.getArgument(0)).toList());
+        leaderboard.rebuild();
+    }
+
+    private static RecipeDto card(Long id, Recipe.Category category, long ratingSum, long ratingCount) {
+        return new RecipeDto(id, "Recipe " + id, "", null, category, 1L, "cook", ratingSum, ratingCount, LocalDateTime.now());
+    }
+
+    private static List<Long> ids(List<RecipeDto> cards) {
+        return cards.stream().map(RecipeDto::getId).toList();
+    }
+}
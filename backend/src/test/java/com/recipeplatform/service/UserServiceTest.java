@@ -0,0 +1,82 @@
+package com.recipeplatform.service;
+
+import com.recipeplatform.config.PrincipalCache;
+import com.recipeplatform.model.User;
+import com.recipeplatform.repository.RecipeRepository;
+import com.recipeplatform.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private RatingService ratingService;
+
+    @Mock
+    private CommentService commentService;
+
+    @Mock
+    private TopRatedLeaderboard topRatedLeaderboard;
+
+    @Mock
+    private TimelineService timelineService;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private EntityCacheService entityCacheService;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private FollowGraph followGraph;
+
+    @Mock
+    private RecipeSuggestService recipeSuggestService;
+
+    @InjectMocks
+    private UserService userService;
+
+    @Test
+    public void deletingAUserTakesTheirRecipesOutOfTheTypeaheadAndLeaderboard() {
+        User cook = user(7L, "cook");
+        when(userRepository.findById(7L)).thenReturn(Optional.of(cook));
+        when(recipeRepository.findIdsByUserId(7L)).thenReturn(List.of(70L, 71L));
+
+        userService.deleteUser(7L, user(1L, "admin"));
+
+        verify(userRepository).deleteById(7L);
+        verify(recipeSuggestService).remove(70L);
+        verify(recipeSuggestService).remove(71L);
+        verify(topRatedLeaderboard).remove(70L);
+        verify(topRatedLeaderboard).remove(71L);
+        // No full re-rank inside the delete's transaction
+        verify(topRatedLeaderboard, never()).rebuild();
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+}
@@ -12,6 +12,9 @@ import {
 } from '@mui/material';
 import { Link } from 'react-router-dom';
 
+// Uploaded images (/api/media/{hash}) have a 600x400 version for cards
+const cardImage = (url) => (url && url.includes('/api/media/') ? `${url}/card` : url);
+
 const RecipeCard = ({ recipe }) => {
   return (
     <Card 
@@ -45,7 +48,7 @@ const RecipeCard = ({ recipe }) => {
         <Box sx={{ position: 'relative' }}>
           <CardMedia
             component="img"
-            image={recipe.imageUrl || 'https://placehold.co/600x400/EEE/31343C?text=Recipe'}
+            image={cardImage(recipe.imageUrl) || 'https://placehold.co/600x400/EEE/31343C?text=Recipe'}
             alt={recipe.title}
             sx={{
               height: 180,
@@ -26,7 +26,9 @@ const CreateRecipe = () => {
     instructions: '',
     category: 'VEGETARIAN',
     imageUrl: '',
+    videoUrl: '',
   });
+  const [uploading, setUploading] = useState('');
   const [error, setError] = useState('');
   const [success, setSuccess] = useState('');
   const [loading, setLoading] = useState(false);
@@ -51,6 +53,7 @@ const CreateRecipe = () => {
             instructions: response.data.instructions,
             category: response.data.category,
             imageUrl: response.data.imageUrl || '',
+            videoUrl: response.data.videoUrl || '',
           });
         } catch (err) {
           setError('Failed to load recipe data for editing.');
@@ -70,21 +73,40 @@ const CreateRecipe = () => {
     });
   };
 
+  // The file is sent as the request body; the returned URL goes into imageUrl / videoUrl
+  const handleUpload = (field) => async (e) => {
+    const input = e.target;
+    const file = input.files[0];
+    if (!file) return;
+    setUploading(field);
+    try {
+      const token = localStorage.getItem('token');
+      const response = await axios.post('http://localhost:8080/api/media', file, {
+        headers: { 'Authorization': `Bearer ${token}`, 'Content-Type': file.type }
+      });
+      setFormData((prev) => ({ ...prev, [field]: response.data.url }));
+      setError('');
+    } catch (err) {
+      setError(err.response?.status === 413 ? 'That file is too large.' : 'Upload failed. Please try again.');
+    } finally {
+      setUploading('');
+      input.value = '';
+    }
+  };
+
   const handleSubmit = async (e) => {
     e.preventDefault();
     try {
       const token = localStorage.getItem('token');
       let response;
 
-      const { videoUrl, ...dataToSend } = formData;
-
       if (isEditMode) {
-        response = await axios.put(`http://localhost:8080/api/recipes/${id}`, dataToSend, {
+        response = await axios.put(`http://localhost:8080/api/recipes/${id}`, formData, {
           headers: { 'Authorization': `Bearer ${token}` }
         });
         setSuccess('Recipe updated successfully!');
       } else {
-        response = await axios.post(`http://localhost:8080/api/recipes`, dataToSend, {
+        response = await axios.post(`http://localhost:8080/api/recipes`, formData, {
           headers: { 'Authorization': `Bearer ${token}` }
         });
         setSuccess('Recipe created successfully!');
@@ -165,6 +187,24 @@ const CreateRecipe = () => {
                 value={formData.imageUrl}
                 onChange={handleChange}
               />
+              <Button component="label" variant="outlined" size="small" disabled={Boolean(uploading)}>
+                {uploading === 'imageUrl' ? 'Uploading...' : 'Upload image'}
+                <input hidden type="file" accept="image/jpeg,image/png,image/gif" onChange={handleUpload('imageUrl')} />
+              </Button>
+
+              <TextField
+                margin="normal"
+                fullWidth
+                id="videoUrl"
+                label="Video URL (optional)"
+                name="videoUrl"
+                value={formData.videoUrl}
+                onChange={handleChange}
+              />
+              <Button component="label" variant="outlined" size="small" disabled={Boolean(uploading)}>
+                {uploading === 'videoUrl' ? 'Uploading...' : 'Upload video'}
+                <input hidden type="file" accept="video/mp4,video/webm" onChange={handleUpload('videoUrl')} />
+              </Button>
               
               <TextField
                 margin="normal"
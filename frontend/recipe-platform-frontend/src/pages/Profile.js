@@ -32,38 +32,28 @@ const Profile = () => {
   const [userRecipes, setUserRecipes] = useState([]);
   const [myComments, setMyComments] = useState([]);
   const [myRatings, setMyRatings] = useState([]);
+  // Totals of each section (the lists above only hold the first page) and the average score
+  const [totals, setTotals] = useState({ recipes: 0, comments: 0, ratings: 0, averageRating: 0 });
   const [user, setUser] = useState(null);
 
-  const fetchUserRecipes = useCallback(async (token) => {
+  // Recipes, comments and ratings come from one request
+  const fetchProfileSummary = useCallback(async (token) => {
     try {
-      const response = await axios.get('http://localhost:8080/api/profile/my-recipes', {
+      const response = await axios.get('http://localhost:8080/api/profile/summary?size=50', {
         headers: { 'Authorization': `Bearer ${token}` }
       });
-      setUserRecipes(response.data);
-    } catch (error) {
-      console.error('Error fetching user recipes:', error);
-    }
-  }, []);
-
-  const fetchMyComments = useCallback(async (token) => {
-    try {
-      const response = await axios.get('http://localhost:8080/api/profile/my-comments', {
-        headers: { 'Authorization': `Bearer ${token}` }
-      });
-      setMyComments(response.data);
-    } catch (error) {
-      console.error('Error fetching user comments:', error);
-    }
-  }, []);
-
-  const fetchMyRatings = useCallback(async (token) => {
-    try {
-      const response = await axios.get('http://localhost:8080/api/profile/my-ratings', {
-        headers: { 'Authorization': `Bearer ${token}` }
+      const { recipes, comments, ratings, averageRating } = response.data;
+      setUserRecipes(recipes.items);
+      setMyComments(comments.items);
+      setMyRatings(ratings.items);
+      setTotals({
+        recipes: recipes.totalCount,
+        comments: comments.totalCount,
+        ratings: ratings.totalCount,
+        averageRating: averageRating ?? 0,
       });
-      setMyRatings(response.data);
     } catch (error) {
-      console.error('Error fetching user ratings:', error);
+      console.error('Error fetching profile:', error);
     }
   }, []);
 
@@ -76,11 +66,9 @@ const Profile = () => {
     }
 
     if (token) {
-      fetchUserRecipes(token);
-      fetchMyComments(token);
-      fetchMyRatings(token);
+      fetchProfileSummary(token);
     }
-  }, [fetchUserRecipes, fetchMyComments, fetchMyRatings]);
+  }, [fetchProfileSummary]);
 
   // Get user initials for avatar
   const getUserInitials = () => {
@@ -95,9 +83,8 @@ const Profile = () => {
 
   // Calculate average rating
   const calculateAverageRating = () => {
-    if (myRatings.length === 0) return 0;
-    const sum = myRatings.reduce((acc, rating) => acc + rating.score, 0);
-    return (sum / myRatings.length).toFixed(1);
+    if (totals.ratings === 0) return 0;
+    return totals.averageRating.toFixed(1);
   };
 
   return (
@@ -150,7 +137,7 @@ const Profile = () => {
               <Stack direction="row" spacing={2} sx={{ mt: 2 }}>
                 <Chip 
                   icon={<MenuBook />}
-                  label={`${userRecipes.length} Recipes`}
+                  label={`${totals.recipes} Recipes`}
                   sx={{ 
                     bgcolor: alpha('#fff', 0.2),
                     color: 'white',
@@ -160,7 +147,7 @@ const Profile = () => {
                 />
                 <Chip 
                   icon={<Comment />}
-                  label={`${myComments.length} Comments`}
+                  label={`${totals.comments} Comments`}
                   sx={{ 
                     bgcolor: alpha('#fff', 0.2),
                     color: 'white',
@@ -170,7 +157,7 @@ const Profile = () => {
                 />
                 <Chip 
                   icon={<Star />}
-                  label={`${myRatings.length} Ratings`}
+                  label={`${totals.ratings} Ratings`}
                   sx={{ 
                     bgcolor: alpha('#fff', 0.2),
                     color: 'white',
@@ -193,7 +180,7 @@ const Profile = () => {
               </Typography>
               {/* ✅ Styled counter chip */}
               <Chip 
-                label={userRecipes.length} 
+                label={totals.recipes} 
                 size="small" 
                 sx={{ 
                   fontWeight: 600,
@@ -270,7 +257,7 @@ const Profile = () => {
                     {calculateAverageRating()}
                   </Typography>
                   <Typography variant="body2" color="text.secondary">
-                    Based on {myRatings.length} {myRatings.length === 1 ? 'rating' : 'ratings'}
+                    Based on {totals.ratings} {totals.ratings === 1 ? 'rating' : 'ratings'}
                   </Typography>
                 </CardContent>
               </Paper>
@@ -285,7 +272,7 @@ const Profile = () => {
                 </Typography>
                 {/* ✅ Styled counter chip */}
                 <Chip 
-                  label={myRatings.length} 
+                  label={totals.ratings} 
                   size="small" 
                   sx={{ 
                     fontWeight: 600,
@@ -364,7 +351,7 @@ const Profile = () => {
                 </Typography>
                 {/* ✅ Styled counter chip */}
                 <Chip 
-                  label={myComments.length} 
+                  label={totals.comments} 
                   size="small" 
                   sx={{ 
                     fontWeight: 600,
@@ -80,9 +80,11 @@ const RecipeDetail = () => {
     }
   }, [id]);
 
-  const fetchAverageRating = useCallback(async () => {
+  // Pass the token after rating so the average already counts the new vote
+  const fetchAverageRating = useCallback(async (token) => {
     try {
-      const response = await axios.get(`http://localhost:8080/api/recipes/${id}/ratings/average`);
+      const config = token ? { headers: { 'Authorization': `Bearer ${token}` } } : {};
+      const response = await axios.get(`http://localhost:8080/api/recipes/${id}/ratings/average`, config);
       setAverageRating(response.data.averageRating);
     } catch (error) {
       console.error('Error fetching average rating:', error);
@@ -133,7 +135,7 @@ const RecipeDetail = () => {
         headers: { 'Authorization': `Bearer ${currentUser.token}` }
       });
       setUserRating(newValue);
-      fetchAverageRating();
+      fetchAverageRating(currentUser.token);
     } catch (error) {
       console.error('Error submitting rating:', error);
     }